@@ -0,0 +1,85 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: Helpers for moving primitive arrays through a FileChannel in
+ *               fixed-size chunks, so that saving a large grid never needs a
+ *               buffer as big as the grid itself.
+ **************************************************************************** */
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+final class ChannelIO {
+
+    // Size in bytes of the buffer arrays are copied through
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    private ChannelIO() { }
+
+    // Writes all remaining bytes of buffer
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Fills the remaining space of buffer and flips it for reading
+    static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException(" Unexpected end of file");
+            }
+        }
+        buffer.flip();
+    }
+
+    static void writeInts(FileChannel channel, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+        int perChunk = CHUNK_BYTES / Integer.BYTES;
+        for (int from = 0; from < values.length; from += perChunk) {
+            int count = Math.min(perChunk, values.length - from);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, from, count);
+            buffer.limit(count * Integer.BYTES);
+            writeFully(channel, buffer);
+        }
+    }
+
+    static void readInts(FileChannel channel, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+        int perChunk = CHUNK_BYTES / Integer.BYTES;
+        for (int from = 0; from < values.length; from += perChunk) {
+            int count = Math.min(perChunk, values.length - from);
+            buffer.clear();
+            buffer.limit(count * Integer.BYTES);
+            readFully(channel, buffer);
+            buffer.asIntBuffer().get(values, from, count);
+        }
+    }
+
+    static void writeLongs(FileChannel channel, long[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+        int perChunk = CHUNK_BYTES / Long.BYTES;
+        for (int from = 0; from < values.length; from += perChunk) {
+            int count = Math.min(perChunk, values.length - from);
+            buffer.clear();
+            buffer.asLongBuffer().put(values, from, count);
+            buffer.limit(count * Long.BYTES);
+            writeFully(channel, buffer);
+        }
+    }
+
+    static void readLongs(FileChannel channel, long[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+        int perChunk = CHUNK_BYTES / Long.BYTES;
+        for (int from = 0; from < values.length; from += perChunk) {
+            int count = Math.min(perChunk, values.length - from);
+            buffer.clear();
+            buffer.limit(count * Long.BYTES);
+            readFully(channel, buffer);
+            buffer.asLongBuffer().get(values, from, count);
+        }
+    }
+}
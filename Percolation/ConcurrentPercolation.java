@@ -0,0 +1,294 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: ConcurrentPercolation is a thread-safe Percolation: any number
+ *               of threads may call open, isOpen, isFull and percolates at the
+ *               same time, with no global lock.
+ *
+ *               The union-find is a concurrent variant of PercolationUF over
+ *               an AtomicIntegerArray, after Jayanti and Tarjan. An entry
+ *               e > 0 means the parent is e - 1, and an entry e <= 0 marks a
+ *               root whose TOP/BOTTOM flags are -e. Every change is a single
+ *               compareAndSet:
+ *
+ *                 find    halves the path by swinging an entry to its
+ *                         grandparent, which is always still an ancestor
+ *                 union   first adds the flags of one root to the other,
+ *                         then links it under the other with a CAS that only
+ *                         succeeds while it is still a root with exactly the
+ *                         flags that were copied
+ *
+ *               Roots are linked by a fixed pseudo-random priority of their
+ *               index instead of by rank, because ranks read by different
+ *               threads can disagree and create cycles. Priorities strictly
+ *               increase along every path, so no cycle can form, and random
+ *               linking keeps the trees shallow in expectation.
+ *
+ *               Flags move to the surviving root before the link, so a
+ *               component never passes through a state where its root lacks
+ *               a flag it already had, and a full site can never be seen as
+ *               not full. Flags only ever grow, so adding them early is safe:
+ *               the two sites are open and adjacent, so their components are
+ *               already one. Because the linking CAS expects the exact flags
+ *               that were copied, flags added to the losing root in between
+ *               make it fail, and the union is retried. A site is full once
+ *               its root has TOP. The system percolates once some root has
+ *               both flags, and the first thread to see such a root, whether
+ *               the one whose CAS set them or a reader, sets percolated
+ *               before going on. So once isFull has returned true for a
+ *               bottom-row site, percolates returns true as well.
+ *
+ *               The structure is lock-free rather than wait-free: a thread
+ *               whose CAS keeps losing retries, but every failed CAS means
+ *               another thread's CAS succeeded.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConcurrentPercolation {
+
+    // gridSize is the size of the square grid
+    private final int gridSize;
+
+    // Parent links and root flags, one entry per site
+    private final AtomicIntegerArray id;
+
+    // Bitset of open sites
+    private final AtomicLongArray isOpen;
+
+    private final LongAdder countOpen = new LongAdder();
+
+    // Set once some component touches both the top and the bottom row
+    private volatile boolean percolated;
+
+    // Creates an n-by-n grid, with all sites initially blocked
+    public ConcurrentPercolation(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException(" n must be at least 1. ");
+        }
+        if (n > Percolation.MAX_N) {
+            throw new IllegalArgumentException(" n must be at most " + Percolation.MAX_N);
+        }
+        gridSize = n;
+        id = new AtomicIntegerArray(n * n);
+        isOpen = new AtomicLongArray(Percolation.bitsetWords(n * n));
+
+        // The top and bottom rows touch their boundary before they are opened,
+        // so opening a site never has to add flags to a brand-new root.
+        for (int col = 0; col < n; col++) {
+            id.set(col, id.get(col) - PercolationUF.TOP);
+            int bottom = (n - 1) * n + col;
+            id.set(bottom, id.get(bottom) - PercolationUF.BOTTOM);
+        }
+    }
+
+    private int siteIndex(int row, int col) {
+        checkBounds(row, col);
+        return (col - 1) + ((row - 1) * gridSize);
+    }
+
+    private void checkBounds(int row, int col) {
+        if (row < 1 || row > gridSize) {
+            throw new IllegalArgumentException(" Row index row is out of bounds");
+        }
+        if (col < 1 || col > gridSize) {
+            throw new IllegalArgumentException(" Column index col is out of bounds");
+        }
+    }
+
+    private boolean openBit(int site) {
+        return (isOpen.get(site >>> 6) & (1L << site)) != 0;
+    }
+
+    // Sets the open bit of site and returns whether this call set it
+    private boolean setOpenBit(int site) {
+        int word = site >>> 6;
+        long mask = 1L << site;
+        while (true) {
+            long bits = isOpen.get(word);
+            if ((bits & mask) != 0) {
+                return false;
+            }
+            if (isOpen.compareAndSet(word, bits, bits | mask)) {
+                return true;
+            }
+        }
+    }
+
+    // Fixed linking priority of a site, a bijective mix of its index
+    private static int priority(int site) {
+        int h = site;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    // Returns a root of the component containing site. By the time the caller
+    // looks at it, the root may already have been linked under another one.
+    private int find(int site) {
+        while (true) {
+            int entry = id.get(site);
+            if (entry <= 0) {
+                return site;
+            }
+            int parent = entry - 1;
+            int parentEntry = id.get(parent);
+            if (parentEntry <= 0) {
+                return parent;
+            }
+            // Point site at its grandparent; losing the race is harmless
+            id.compareAndSet(site, entry, parentEntry);
+            site = parentEntry - 1;
+        }
+    }
+
+    // Adds flags to root, if it is still a root; returns false if it is not
+    private boolean addRootFlags(int root, int flags) {
+        while (true) {
+            int entry = id.get(root);
+            if (entry > 0) {
+                return false;
+            }
+            int merged = -entry | flags;
+            if (merged == -entry) {
+                return true;
+            }
+            if (id.compareAndSet(root, entry, -merged)) {
+                if (merged == PercolationUF.BOTH) {
+                    percolated = true;
+                }
+                return true;
+            }
+        }
+    }
+
+    // Merges the components containing sites p and q
+    private void union(int p, int q) {
+        while (true) {
+            int rootP = find(p);
+            int rootQ = find(q);
+            if (rootP == rootQ) {
+                return;
+            }
+
+            // Link the root of lower priority under the other one
+            if (priority(rootP) > priority(rootQ)) {
+                int swap = rootP;
+                rootP = rootQ;
+                rootQ = swap;
+            }
+            int entry = id.get(rootP);
+            if (entry > 0) {
+                continue;
+            }
+
+            // Give rootQ the flags of rootP before rootP stops being a root
+            if (entry != 0 && !addRootFlags(rootQ, -entry)) {
+                continue;
+            }
+            if (id.compareAndSet(rootP, entry, rootQ + 1)) {
+                return;
+            }
+        }
+    }
+
+    // Opens the site (row, col) if it is not already open
+    public void open(int row, int col) {
+        int site = siteIndex(row, col);
+        if (!setOpenBit(site)) {
+            return;
+        }
+        countOpen.increment();
+
+        // Every opener sets its own bit before looking at its neighbors, so of
+        // two neighbors opened at the same time at least one sees the other.
+        if (col > 1 && openBit(site - 1)) {
+            union(site, site - 1);
+        }
+        if (col < gridSize && openBit(site + 1)) {
+            union(site, site + 1);
+        }
+        if (row > 1 && openBit(site - gridSize)) {
+            union(site, site - gridSize);
+        }
+        if (row < gridSize && openBit(site + gridSize)) {
+            union(site, site + gridSize);
+        }
+
+        // Covers a site that touches both rows on its own (n == 1); flagsOf
+        // sets percolated if the root has both
+        if (!percolated) {
+            flagsOf(site);
+        }
+    }
+
+    // Returns the flags of the component containing site. A root with both
+    // flags may have been seen here before the thread that set them got to
+    // percolated, so set it here too before anything is reported.
+    private int flagsOf(int site) {
+        while (true) {
+            int entry = id.get(find(site));
+            if (entry <= 0) {
+                if (-entry == PercolationUF.BOTH && !percolated) {
+                    percolated = true;
+                }
+                return -entry;
+            }
+        }
+    }
+
+    // Is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        return openBit(siteIndex(row, col));
+    }
+
+    // Is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        int site = siteIndex(row, col);
+        return openBit(site) && (flagsOf(site) & PercolationUF.TOP) != 0;
+    }
+
+    // Returns the number of open sites
+    public int numberOfOpenSites() {
+        return countOpen.intValue();
+    }
+
+    // Does the system percolate?
+    public boolean percolates() {
+        return percolated;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int threads = Runtime.getRuntime().availableProcessors();
+        ConcurrentPercolation grid = new ConcurrentPercolation(n);
+
+        // Each thread opens every site of its own band of columns
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int first = t;
+            workers[t] = new Thread(() -> {
+                for (int col = first + 1; col <= n; col += threads) {
+                    for (int row = 1; row <= n; row++) {
+                        grid.open(row, col);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        StdOut.println(grid.numberOfOpenSites());
+        StdOut.println(grid.percolates());
+        StdOut.println(grid.isFull(n, n));
+    }
+}
@@ -0,0 +1,96 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: A 3D n-by-n-by-n cubic lattice with 6-neighbor connectivity.
+ *               Site (layer, row, col), counted from 0, has index
+ *               (layer * n + row) * n + col. The top boundary is layer 0 and
+ *               the bottom boundary is layer n - 1.
+ *
+ *               With periodic boundaries both horizontal directions (rows and
+ *               columns) wrap around, while the layers never do.
+ **************************************************************************** */
+
+final class CubicTopology implements Topology {
+
+    // Largest n for which the n^3 site indices still fit in an int
+    static final int MAX_N = 1290;
+
+    private final int n;
+    private final int layerSize;
+    private final boolean periodic;
+
+    CubicTopology(int n, boolean periodic) {
+        if (n <= 0) {
+            throw new IllegalArgumentException(" n must be at least 1. ");
+        }
+        if (n > MAX_N) {
+            throw new IllegalArgumentException(" n must be at most " + MAX_N);
+        }
+        this.n = n;
+        this.layerSize = n * n;
+        this.periodic = periodic;
+    }
+
+    @Override
+    public int sites() {
+        return layerSize * n;
+    }
+
+    @Override
+    public int maxNeighbors() {
+        return 6;
+    }
+
+    @Override
+    public int neighbors(int site, int[] neighbors) {
+        int layer = site / layerSize;
+        int inLayer = site - layer * layerSize;
+        int row = inLayer / n;
+        int col = inLayer - row * n;
+        int count = 0;
+
+        if (col > 0) {
+            neighbors[count++] = site - 1;
+        }
+        else if (periodic) {
+            neighbors[count++] = site + n - 1;
+        }
+        if (col < n - 1) {
+            neighbors[count++] = site + 1;
+        }
+        else if (periodic) {
+            neighbors[count++] = site - (n - 1);
+        }
+
+        if (row > 0) {
+            neighbors[count++] = site - n;
+        }
+        else if (periodic) {
+            neighbors[count++] = site + layerSize - n;
+        }
+        if (row < n - 1) {
+            neighbors[count++] = site + n;
+        }
+        else if (periodic) {
+            neighbors[count++] = site - (layerSize - n);
+        }
+
+        if (layer > 0) {
+            neighbors[count++] = site - layerSize;
+        }
+        if (layer < n - 1) {
+            neighbors[count++] = site + layerSize;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isTop(int site) {
+        return site < layerSize;
+    }
+
+    @Override
+    public boolean isBottom(int site) {
+        return site >= layerSize * (n - 1);
+    }
+}
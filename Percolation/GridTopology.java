@@ -0,0 +1,82 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: A 2D n-by-n square lattice. Site (row, col), counted from 0,
+ *               has index row * n + col. The top boundary is row 0 and the
+ *               bottom boundary is row n - 1.
+ *
+ *               With periodic boundaries the columns wrap around, turning the
+ *               grid into a cylinder. With diagonals every site also connects
+ *               to its four diagonal neighbors.
+ **************************************************************************** */
+
+final class GridTopology implements Topology {
+
+    // Row and column offsets of the 4-neighbor stencil
+    private static final int[] EDGE_ROWS = { 0, 0, -1, 1 };
+    private static final int[] EDGE_COLS = { -1, 1, 0, 0 };
+
+    // Row and column offsets of the 8-neighbor stencil
+    private static final int[] MOORE_ROWS = { 0, 0, -1, 1, -1, -1, 1, 1 };
+    private static final int[] MOORE_COLS = { -1, 1, 0, 0, -1, 1, -1, 1 };
+
+    private final int n;
+    private final boolean periodic;
+    private final int[] stencilRows;
+    private final int[] stencilCols;
+
+    GridTopology(int n, boolean periodic, boolean diagonals) {
+        if (n <= 0) {
+            throw new IllegalArgumentException(" n must be at least 1. ");
+        }
+        if (n > Percolation.MAX_N) {
+            throw new IllegalArgumentException(" n must be at most " + Percolation.MAX_N);
+        }
+        this.n = n;
+        this.periodic = periodic;
+        stencilRows = diagonals ? MOORE_ROWS : EDGE_ROWS;
+        stencilCols = diagonals ? MOORE_COLS : EDGE_COLS;
+    }
+
+    @Override
+    public int sites() {
+        return n * n;
+    }
+
+    @Override
+    public int maxNeighbors() {
+        return stencilRows.length;
+    }
+
+    @Override
+    public int neighbors(int site, int[] neighbors) {
+        int row = site / n;
+        int col = site - row * n;
+        int count = 0;
+        for (int k = 0; k < stencilRows.length; k++) {
+            int r = row + stencilRows[k];
+            int c = col + stencilCols[k];
+            if (r < 0 || r >= n) {
+                continue;
+            }
+            if (c < 0 || c >= n) {
+                if (!periodic) {
+                    continue;
+                }
+                c = c < 0 ? c + n : c - n;
+            }
+            neighbors[count++] = r * n + c;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isTop(int site) {
+        return site < n;
+    }
+
+    @Override
+    public boolean isBottom(int site) {
+        return site >= n * (n - 1);
+    }
+}
@@ -0,0 +1,145 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: LatticePercolation is Percolation over any Topology: 2D grids
+ *               with periodic sides or diagonal neighbors, 3D cubic lattices,
+ *               or a custom neighbor stencil. Sites are addressed by their
+ *               flat index in the topology.
+ *
+ *               It uses the same core as Percolation: an open-site bitset and
+ *               a PercolationUF whose roots carry the top/bottom flags, so a
+ *               site is full when its root touches the top boundary and the
+ *               lattice percolates once a root touches both boundaries.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+public class LatticePercolation {
+
+    private final Topology topology;
+
+    // Connectivity between open sites and the boundaries they touch
+    private final PercolationUF quickUnionStructure;
+
+    // Bitset of open sites
+    private final long[] isOpen;
+
+    // Scratch space for the neighbors of the site being opened
+    private final int[] neighbors;
+
+    private final int siteCount;
+
+    private int countOpen;
+
+    // Set once some component touches both the top and the bottom boundary
+    private boolean percolated;
+
+    // Creates a lattice with the given topology, with all sites blocked
+    public LatticePercolation(Topology topology) {
+        if (topology == null) {
+            throw new IllegalArgumentException(" topology must not be null");
+        }
+        this.topology = topology;
+        siteCount = topology.sites();
+        if (siteCount <= 0) {
+            throw new IllegalArgumentException(" topology must have at least one site");
+        }
+        isOpen = new long[Percolation.bitsetWords(siteCount)];
+        quickUnionStructure = new PercolationUF(siteCount);
+        neighbors = new int[topology.maxNeighbors()];
+    }
+
+    // Returns the topology of the lattice
+    public Topology topology() {
+        return topology;
+    }
+
+    private void checkBounds(int site) {
+        if (site < 0 || site >= siteCount) {
+            throw new IllegalArgumentException(" Site index " + site + " is out of bounds");
+        }
+    }
+
+    // Opens site if it is not already open
+    public void open(int site) {
+        checkBounds(site);
+        if (Percolation.testBit(isOpen, site)) {
+            return;
+        }
+        Percolation.setBit(isOpen, site);
+        countOpen++;
+
+        int flags = 0;
+        if (topology.isTop(site)) {
+            flags |= PercolationUF.TOP;
+        }
+        if (topology.isBottom(site)) {
+            flags |= PercolationUF.BOTTOM;
+        }
+        int root = quickUnionStructure.mark(site, flags);
+
+        int count = topology.neighbors(site, neighbors);
+        for (int k = 0; k < count; k++) {
+            int neighbor = neighbors[k];
+            if (Percolation.testBit(isOpen, neighbor)) {
+                root = quickUnionStructure.union(root, neighbor);
+            }
+        }
+
+        if (quickUnionStructure.flags(root) == PercolationUF.BOTH) {
+            percolated = true;
+        }
+    }
+
+    // Is site open?
+    public boolean isOpen(int site) {
+        checkBounds(site);
+        return Percolation.testBit(isOpen, site);
+    }
+
+    // Is site full, i.e. open and connected to the top boundary?
+    public boolean isFull(int site) {
+        checkBounds(site);
+        if (!Percolation.testBit(isOpen, site)) {
+            return false;
+        }
+        int root = quickUnionStructure.find(site);
+        return (quickUnionStructure.flags(root) & PercolationUF.TOP) != 0;
+    }
+
+    // Returns the number of open sites
+    public int numberOfOpenSites() {
+        return countOpen;
+    }
+
+    // Does the lattice percolate?
+    public boolean percolates() {
+        return percolated;
+    }
+
+    public static void main(String[] args) {
+        // On a 3-by-3 grid, two diagonal steps only percolate with diagonals
+        LatticePercolation square = new LatticePercolation(Topology.square(3));
+        LatticePercolation moore = new LatticePercolation(Topology.squareWithDiagonals(3, false));
+        for (int site : new int[] { 0, 4, 8 }) {
+            square.open(site);
+            moore.open(site);
+        }
+        StdOut.println(square.percolates());
+        StdOut.println(moore.percolates());
+
+        // On a periodic grid, column 0 and column 2 are neighbors
+        LatticePercolation cylinder = new LatticePercolation(Topology.periodicSquare(3));
+        for (int site : new int[] { 0, 3, 5, 8 }) {
+            cylinder.open(site);
+        }
+        StdOut.println(cylinder.percolates());
+
+        // A straight column through a 2-by-2-by-2 cube
+        LatticePercolation cube = new LatticePercolation(Topology.cubic(2, false));
+        cube.open(1);
+        StdOut.println(cube.isFull(1));
+        cube.open(5);
+        StdOut.println(cube.percolates());
+    }
+}
@@ -0,0 +1,120 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: A fixed-length array of longs that lives outside the Java
+ *               heap, either in direct ByteBuffers or in a memory-mapped file.
+ *
+ *               A single ByteBuffer is limited to 2^31 bytes, so the array is
+ *               split into segments of 2^27 longs (1 GiB) each. Indices are
+ *               longs, so the array can hold far more than 2^31 entries.
+ **************************************************************************** */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.ByteBuffer;
+
+final class LongSegments {
+
+    // Each segment holds 2^SEGMENT_BITS longs
+    private static final int SEGMENT_BITS = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    // Block of zeros that clear copies in
+    private static final long[] ZEROS = new long[4096];
+
+    private final LongBuffer[] segments;
+    private final long length;
+
+    // Allocates length longs in direct (off-heap) buffers, all set to zero
+    static LongSegments allocateDirect(long length) {
+        LongBuffer[] segments = new LongBuffer[segmentCount(length)];
+        for (int s = 0; s < segments.length; s++) {
+            long longs = Math.min(1L << SEGMENT_BITS, length - ((long) s << SEGMENT_BITS));
+            segments[s] = ByteBuffer.allocateDirect((int) (longs * Long.BYTES))
+                                    .order(ByteOrder.nativeOrder())
+                                    .asLongBuffer();
+        }
+        return new LongSegments(segments, length);
+    }
+
+    // Maps length longs of the file, starting at byte offset, read-write.
+    // The file is grown as needed, and regions past its old end read as zero.
+    static LongSegments map(FileChannel channel, long offset, long length) {
+        LongBuffer[] segments = new LongBuffer[segmentCount(length)];
+        try {
+            for (int s = 0; s < segments.length; s++) {
+                long first = (long) s << SEGMENT_BITS;
+                long longs = Math.min(1L << SEGMENT_BITS, length - first);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE,
+                                                      offset + first * Long.BYTES,
+                                                      longs * Long.BYTES);
+                segments[s] = region.order(ByteOrder.nativeOrder()).asLongBuffer();
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new LongSegments(segments, length);
+    }
+
+    // Opens a file to back mapped segments, creating it or truncating it to
+    // zero length so every mapped region starts out as zeros. The file must
+    // not be mapped already: some platforms, Windows among them, refuse to
+    // truncate a file with a live mapping, and mappings are only released by
+    // GC. To reuse a mapping, clear it instead.
+    static FileChannel openEmptyFile(Path file) {
+        try {
+            return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                    StandardOpenOption.WRITE,
+                                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private LongSegments(LongBuffer[] segments, long length) {
+        this.segments = segments;
+        this.length = length;
+    }
+
+    private static int segmentCount(long length) {
+        if (length < 0) {
+            throw new IllegalArgumentException(" length must not be negative");
+        }
+        long count = (length + SEGMENT_MASK) >>> SEGMENT_BITS;
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(" length " + length + " is too large");
+        }
+        return (int) count;
+    }
+
+    // Number of longs in the array
+    long length() {
+        return length;
+    }
+
+    long get(long index) {
+        return segments[(int) (index >>> SEGMENT_BITS)].get((int) (index & SEGMENT_MASK));
+    }
+
+    void set(long index, long value) {
+        segments[(int) (index >>> SEGMENT_BITS)].put((int) (index & SEGMENT_MASK), value);
+    }
+
+    // Sets every long to zero, a block at a time
+    void clear() {
+        for (LongBuffer segment : segments) {
+            int limit = segment.limit();
+            for (int i = 0; i < limit; i += ZEROS.length) {
+                segment.put(i, ZEROS, 0, Math.min(ZEROS.length, limit - i));
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: OffHeapPercolation has the same public model as Percolation,
+ *               an n-by-n grid with (1,1) at the top left, but keeps all of its
+ *               state outside the Java heap so grids with billions of sites
+ *               can be simulated without GC pressure.
+ *
+ *               The union-find and the open-site bitset are LongSegments,
+ *               backed either by direct buffers or by a memory-mapped file.
+ *               Site indices are longs from 0 to n^2 - 1, left to right and
+ *               top to bottom.
+ *
+ *               The union-find is laid out like PercolationUF, but with long
+ *               entries so parents can exceed 2^31, and with an encoding in
+ *               which zero is a singleton root. That way a freshly mapped file
+ *               or direct buffer needs no initialization pass:
+ *
+ *                 entry >  0   the site's parent is entry - 1
+ *                 entry <= 0   the site is a root and -entry packs its rank in
+ *                              the high bits and the TOP/BOTTOM flags in the
+ *                              low bits
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+public class OffHeapPercolation implements AutoCloseable {
+
+    // Number of low bits of a root entry used for flags
+    private static final int FLAG_BITS = 2;
+
+    // gridSize is the size of the square grid
+    private final int gridSize;
+
+    // Parent links, ranks and flags, one long per site
+    private final LongSegments id;
+
+    // One bit per site, set when the site is open
+    private final LongSegments isOpen;
+
+    // File backing the segments, or null for direct buffers
+    private final FileChannel channel;
+
+    private long countOpen;
+
+    // Set once some component touches both the top and the bottom row
+    private boolean percolated;
+
+    // Creates an n-by-n grid in direct buffers, with all sites initially
+    // blocked. Direct buffers count against -XX:MaxDirectMemorySize, which
+    // defaults to the maximum heap size, so this form cannot hold a grid
+    // larger than -Xmx unless that limit is raised; the file-backed form has
+    // no such cap.
+    public OffHeapPercolation(int n) {
+        checkSize(n);
+        gridSize = n;
+        long sites = (long) n * n;
+        id = LongSegments.allocateDirect(sites);
+        isOpen = LongSegments.allocateDirect(bitsetWords(sites));
+        channel = null;
+    }
+
+    // Creates an n-by-n grid in a memory-mapped file, with all sites initially
+    // blocked. Any existing contents of file are discarded, so file must not
+    // be mapped by an earlier grid that may not have been collected yet; to
+    // run again on the same file, clear this grid instead.
+    public OffHeapPercolation(int n, Path file) {
+        checkSize(n);
+        if (file == null) {
+            throw new IllegalArgumentException(" file must not be null");
+        }
+        gridSize = n;
+        long sites = (long) n * n;
+        channel = LongSegments.openEmptyFile(file);
+        id = LongSegments.map(channel, 0, sites);
+        isOpen = LongSegments.map(channel, sites * Long.BYTES, bitsetWords(sites));
+    }
+
+    private static void checkSize(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException(" n must be at least 1. ");
+        }
+    }
+
+    // Returns the number of bytes an n-by-n grid occupies off the heap: one
+    // long per site for the union-find and one bit per site for isOpen.
+    public static long memoryFootprint(int n) {
+        checkSize(n);
+        long sites = (long) n * n;
+        return Long.BYTES * (sites + bitsetWords(sites));
+    }
+
+    private static long bitsetWords(long sites) {
+        return (sites + 63) >>> 6;
+    }
+
+    // Converting the 2-dimensional grid system into a 1-dimensional site index
+    private long siteIndex(int row, int col) {
+        checkBounds(row, col);
+        return (col - 1) + (row - 1) * (long) gridSize;
+    }
+
+    private void checkBounds(int row, int col) {
+        if (row < 1 || row > gridSize) {
+            throw new IllegalArgumentException(" Row index row is out of bounds");
+        }
+        if (col < 1 || col > gridSize) {
+            throw new IllegalArgumentException(" Column index col is out of bounds");
+        }
+    }
+
+    private boolean openBit(long site) {
+        return (isOpen.get(site >>> 6) & (1L << site)) != 0;
+    }
+
+    // Returns the root of the component containing site, halving the path
+    private long find(long site) {
+        long parent = id.get(site) - 1;
+        while (parent >= 0) {
+            long grandparent = id.get(parent) - 1;
+            if (grandparent >= 0) {
+                id.set(site, grandparent + 1);
+                site = grandparent;
+            }
+            else {
+                site = parent;
+            }
+            parent = id.get(site) - 1;
+        }
+        return site;
+    }
+
+    // Merges the component of site into the component whose root is root and
+    // returns the new root
+    private long union(long root, long site) {
+        long other = find(site);
+        if (other == root) {
+            return root;
+        }
+        long wordRoot = -id.get(root);
+        long wordOther = -id.get(other);
+        long rankRoot = wordRoot >>> FLAG_BITS;
+        long rankOther = wordOther >>> FLAG_BITS;
+        long flags = (wordRoot | wordOther) & PercolationUF.BOTH;
+
+        if (rankRoot < rankOther) {
+            long swap = root;
+            root = other;
+            other = swap;
+            rankRoot = rankOther;
+        }
+        else if (rankRoot == rankOther) {
+            rankRoot++;
+        }
+        id.set(other, root + 1);
+        id.set(root, -((rankRoot << FLAG_BITS) | flags));
+        return root;
+    }
+
+    // Opens the site (row, col) if it is not already open
+    public void open(int row, int col) {
+        long site = siteIndex(row, col);
+        if (openBit(site)) {
+            return;
+        }
+        isOpen.set(site >>> 6, isOpen.get(site >>> 6) | (1L << site));
+        countOpen++;
+
+        // A new site is its own root, so its flags go straight into its entry
+        long flags = 0;
+        if (row == 1) {
+            flags |= PercolationUF.TOP;
+        }
+        if (row == gridSize) {
+            flags |= PercolationUF.BOTTOM;
+        }
+        id.set(site, -flags);
+
+        long root = site;
+        if (col > 1 && openBit(site - 1)) {
+            root = union(root, site - 1);
+        }
+        if (col < gridSize && openBit(site + 1)) {
+            root = union(root, site + 1);
+        }
+        if (row > 1 && openBit(site - gridSize)) {
+            root = union(root, site - gridSize);
+        }
+        if (row < gridSize && openBit(site + gridSize)) {
+            root = union(root, site + gridSize);
+        }
+
+        if ((-id.get(root) & PercolationUF.BOTH) == PercolationUF.BOTH) {
+            percolated = true;
+        }
+    }
+
+    // Is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        return openBit(siteIndex(row, col));
+    }
+
+    // Is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        long site = siteIndex(row, col);
+        if (!openBit(site)) {
+            return false;
+        }
+        return (-id.get(find(site)) & PercolationUF.TOP) != 0;
+    }
+
+    // Returns the number of open sites
+    public long numberOfOpenSites() {
+        return countOpen;
+    }
+
+    // Does the system percolate?
+    public boolean percolates() {
+        return percolated;
+    }
+
+    // Blocks every site again, so the grid can be reused without mapping or
+    // allocating anything new. Takes time proportional to n^2.
+    public void clear() {
+        id.clear();
+        isOpen.clear();
+        countOpen = 0;
+        percolated = false;
+    }
+
+    // Closes the backing file, if any. The grid must not be used afterwards.
+    // Java offers no way to unmap a file or free a direct buffer explicitly,
+    // so the memory is only released once the grid is garbage collected.
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) {
+        OffHeapPercolation grid = new OffHeapPercolation(3);
+        grid.open(1, 1);
+        grid.open(2, 1);
+        grid.open(3, 3);
+        StdOut.println(grid.percolates());
+        StdOut.println(grid.isFull(3, 3));
+        grid.open(3, 1);
+        StdOut.println(grid.percolates());
+        StdOut.println(grid.isFull(3, 3));
+        StdOut.println(grid.numberOfOpenSites());
+    }
+}
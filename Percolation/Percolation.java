@@ -6,102 +6,164 @@
  *               representing the bottom right of the grid.
  *
  *               Privately the model uses a 1-dimensional array:
- *               indices 1 through n^2 representing each site. The indices
+ *               indices 0 through n^2 - 1 representing each site. The indices
  *               increment from left to right by column, and top to bottom
  *               by row.
  *
- *               Index 0 reperesents a virtual top that initializes open and
- *               connected to the entire top row. A full site is an open site
- *               that can be connected to the top row. Therefore index (n*n + 1)
- *               represents a full site. Percolation indicates that there is a
- *               full site in the bottom as well. Hence index (n*n + 2)
- *               represents a percolated site.
+ *               Openness is tracked by the isOpen bitset, one bit per site
+ *               packed into a long array. When a site is open, it connects to
+ *               adjacent open sites.
  *
- *               Openness is tracked by the isOpen array. When a site is open,
- *               it connects to adjacent open sites.
+ *               The constructor estimates the memory footprint of the grid
+ *               (see memoryFootprint) and refuses grids larger than the whole
+ *               heap (maxMemory) before allocating anything. A grid that fits
+ *               the heap but not the space left in it is allocated as usual,
+ *               and fails with OutOfMemoryError if a collection cannot make
+ *               room.
  *
- *               Fullness if tracked by isFull array.
+ *               Connectivity is tracked by a PercolationUF. Instead of virtual
+ *               top and bottom sites, every root carries a flag for touching
+ *               the top row and a flag for touching the bottom row. A full site
+ *               is an open site whose root touches the top row, so there is no
+ *               backwash through the bottom row.
  *
- *               The system is said to percolate when the virtual bottom site
- *               is full and there is a path to the virtual top.
+ *               The system is said to percolate as soon as a root touches both
+ *               the top and the bottom row.
+ *
+ *               recordTo attaches a SiteLog that records every opening, which
+ *               costs a single null check per open when nothing is attached.
+ *
+ *               When created with trackClusters, the grid also keeps running
+ *               cluster statistics that are updated on every union: the number
+ *               of clusters, the size of the largest one and a histogram of
+ *               cluster sizes, so none of them needs a scan of the grid.
  *
  **************************************************************************** */
 
 import edu.princeton.cs.algs4.StdOut;
-import edu.princeton.cs.algs4.WeightedQuickUnionUF;
 
-public class Percolation {
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
-    // quickUnionStructure represents a percolated structure i.e.
-    // connectivity between sites, and open sites percolate to
-    // one another
-    private final WeightedQuickUnionUF quickUnionStructure;
+public class Percolation {
 
-    // quickUnionStructureForFull tracks fullness without backwash
-    private final WeightedQuickUnionUF quickUnionStructureForFull;
+    // quickUnionStructure represents connectivity between open sites, and
+    // whether each component touches the top and bottom rows
+    private final PercolationUF quickUnionStructure;
 
     // gridSize is the size of the square grid
     private final int gridSize;
 
-    // boolean array isOpen monitors open/closed states in sites. Two sites can
-    // percolate if they are open and connected.
-    private boolean[] isOpen;
+    // Largest n for which the n^2 site indices still fit in an int
+    public static final int MAX_N = 46340;
 
+    // Bitset isOpen monitors open/closed states in sites, bit (site % 64) of
+    // word (site / 64). Two sites can percolate if they are open and connected.
+    private final long[] isOpen;
 
-    // virtualTopIndex is connected to the top row. It is initialized to 0.
-    private final int virtualTopIndex;
+    private int countOpen;
 
-    // virtualBottomIndex is connected to the bottom row. It is initialized to
-    // (n * n + 1)
-    private final int virtualBottomIndex;
+    // Set once some component touches both the top and the bottom row
+    private boolean percolated;
 
-    private int countOpen;
+    // Size of the cluster rooted at each root, or null when clusters are not
+    // tracked
+    private final int[] clusterSize;
+
+    // sizeHistogram[s] is the number of clusters with s sites
+    private final int[] sizeHistogram;
+
+    private int clusterCount;
+
+    private int largestCluster;
+
+    // Log every opening is appended to, or null when not recording
+    private SiteLog log;
 
 
     // Creates creates n-by-n grid, with all sites initially blocked
     public Percolation(int n) {
+        this(n, false);
+    }
+
+    // Creates an n-by-n grid, with all sites initially blocked, that also keeps
+    // cluster statistics if trackClusters is set
+    public Percolation(int n, boolean trackClusters) {
         if (n <= 0) {
             throw new IllegalArgumentException(" n must be at least 1. ");
         }
-        gridSize = n;
-        int arraySize = n * n + 2;
-        isOpen = new boolean[arraySize];
-
-
-        quickUnionStructure = new WeightedQuickUnionUF(n * n + 2);
-        quickUnionStructureForFull = new WeightedQuickUnionUF(n * n + 1);
-
-        virtualTopIndex = 0;
-        virtualBottomIndex = n * n + 1;
+        if (n > MAX_N) {
+            throw new IllegalArgumentException(" n must be at most " + MAX_N);
+        }
+        // Compare against the heap's capacity rather than its momentary free
+        // space, which counts garbage a collection would reclaim; a grid that
+        // merely needs a GC first is left to the allocator.
+        long footprint = memoryFootprint(n, trackClusters);
+        long capacity = Runtime.getRuntime().maxMemory();
+        if (footprint > capacity) {
+            throw new IllegalArgumentException(" A " + n + "-by-" + n + " grid needs "
+                                                       + footprint + " bytes but the heap"
+                                                       + " holds at most " + capacity
+                                                       + " bytes");
+        }
 
+        gridSize = n;
+        isOpen = new long[bitsetWords(n * n)];
+        quickUnionStructure = new PercolationUF(n * n);
+        if (trackClusters) {
+            clusterSize = new int[n * n];
+            sizeHistogram = new int[n * n + 1];
+        }
+        else {
+            clusterSize = null;
+            sizeHistogram = null;
+        }
+    }
 
-        isOpen[virtualTopIndex] = true;
-        isOpen[virtualBottomIndex] = true;
+    // Returns the approximate number of heap bytes an n-by-n grid allocates:
+    // one int per site for the union-find and one bit per site for isOpen.
+    public static long memoryFootprint(int n) {
+        return memoryFootprint(n, false);
+    }
 
-        // Connecting all top row sites to virtual top site
-        for (int col = 1; col <= n; col++) {
+    // Returns the approximate number of heap bytes an n-by-n grid allocates,
+    // including two more ints per site when clusters are tracked.
+    public static long memoryFootprint(int n, boolean trackClusters) {
+        if (n <= 0) {
+            throw new IllegalArgumentException(" n must be at least 1. ");
+        }
+        long sites = (long) n * n;
+        long bytes = Integer.BYTES * sites + Long.BYTES * ((sites + 63) / 64);
+        if (trackClusters) {
+            bytes += Integer.BYTES * (2 * sites + 1);
+        }
+        return bytes;
+    }
 
-            int row = 1;
-            int topSiteIndex = siteIndex(row, col);
-            quickUnionStructure.union(virtualTopIndex, topSiteIndex);
-            quickUnionStructureForFull.union(virtualTopIndex, topSiteIndex);
+    // Number of longs needed to hold one bit per site
+    static int bitsetWords(int sites) {
+        return (sites + 63) >>> 6;
+    }
 
-            // Connecting all bottom row sites to virtual bottom site
-            row = n;
-            int bottomSiteIndex = siteIndex(row, col);
-            quickUnionStructure.union(virtualBottomIndex, bottomSiteIndex);
+    // Is bit site of the bitset set?
+    static boolean testBit(long[] bits, int site) {
+        return (bits[site >>> 6] & (1L << site)) != 0;
+    }
 
-        }
+    // Sets bit site of the bitset
+    static void setBit(long[] bits, int site) {
+        bits[site >>> 6] |= 1L << site;
     }
 
     // Converting the 2-dimensional grid system into a 1-dimensional site array.
-    // Valid indices are 1 to N^2. The row is indicate by i, and the column is
-    // indicated by j. checkBounds throws exception for invalid boundaries
+    // Valid indices are 0 to N^2 - 1. The row is indicate by i, and the column
+    // is indicated by j. checkBounds throws exception for invalid boundaries
 
     private int siteIndex(int row, int col) {
         checkBounds(row, col);
 
-        return col + ((row - 1) * gridSize);
+        return (col - 1) + ((row - 1) * gridSize);
     }
 
 
@@ -123,61 +185,190 @@ public class Percolation {
     public void open(int row, int col) {
         // Obtain the 1-dimensional array index for a particular site
         int site = siteIndex(row, col);
-        if (!isOpen(row, col)) {
-            // To open that site, change the boolean value and union with any
-            // adjacent open site.
-            isOpen[site] = true;
-            countOpen++;
-
-            // Before connecting to a neighbor, check that the site is open, and
-            // not on an edge.
-
-            // Checking the adjacent site to the left of site
-            if (col > 1 && isOpen(row, (col - 1))) {
-                int indexToLeft = siteIndex(row, (col - 1));
-                quickUnionStructure.union(site, indexToLeft);
-                quickUnionStructureForFull.union(site, indexToLeft);
+        openSite(site, row, col);
+    }
+
+    // Opens every site (rows[k], cols[k]) that is not already open and returns
+    // how many sites were newly opened. The whole batch is validated before
+    // any site is opened, so an invalid entry leaves the grid unchanged.
+    public int openAll(int[] rows, int[] cols) {
+        if (rows == null || cols == null) {
+            throw new IllegalArgumentException(" rows and cols must not be null");
+        }
+        if (rows.length != cols.length) {
+            throw new IllegalArgumentException(" rows and cols must have the same length");
+        }
+        for (int k = 0; k < rows.length; k++) {
+            checkBounds(rows[k], cols[k]);
+        }
+
+        int opened = 0;
+        for (int k = 0; k < rows.length; k++) {
+            int row = rows[k];
+            int col = cols[k];
+            if (openSite((col - 1) + ((row - 1) * gridSize), row, col)) {
+                opened++;
+            }
+        }
+        return opened;
+    }
+
+    // Opens every site in sites that is not already open and returns how many
+    // sites were newly opened. Site (row, col) has index (row - 1) * n +
+    // (col - 1). The whole batch is validated before any site is opened.
+    public int openAll(int[] sites) {
+        if (sites == null) {
+            throw new IllegalArgumentException(" sites must not be null");
+        }
+        int siteCount = gridSize * gridSize;
+        for (int site : sites) {
+            if (site < 0 || site >= siteCount) {
+                throw new IllegalArgumentException(" Site index " + site + " is out of bounds");
+            }
+        }
+
+        int opened = 0;
+        for (int site : sites) {
+            int row = site / gridSize;
+            if (openSite(site, row + 1, site - row * gridSize + 1)) {
+                opened++;
             }
+        }
+        return opened;
+    }
+
+    // Opens site, which is (row, col), and returns whether it was closed. The
+    // caller has already checked the bounds, so neighbors are looked up
+    // directly by index.
+    private boolean openSite(int site, int row, int col) {
+        if (testBit(isOpen, site)) {
+            return false;
+        }
 
-            // Checking the adjacent site to the right of site
-            if (col < gridSize && isOpen(row, (col + 1))) {
-                int indexToRight = siteIndex(row, (col + 1));
-                quickUnionStructure.union(site, indexToRight);
-                quickUnionStructureForFull.union(site, indexToRight);
+        // To open that site, change the bit and union with any adjacent open
+        // site.
+        setBit(isOpen, site);
+        countOpen++;
+        if (log != null) {
+            log.append(site);
+        }
+
+        // Sites in the top and bottom rows start out touching that row
+        int flags = 0;
+        if (row == 1) {
+            flags |= PercolationUF.TOP;
+        }
+        if (row == gridSize) {
+            flags |= PercolationUF.BOTTOM;
+        }
+        int root = quickUnionStructure.mark(site, flags);
+
+        // The new site starts out as a cluster of its own
+        if (clusterSize != null) {
+            clusterSize[site] = 1;
+            sizeHistogram[1]++;
+            clusterCount++;
+            if (largestCluster == 0) {
+                largestCluster = 1;
             }
+        }
 
+        // Before connecting to a neighbor, check that the site is open, and
+        // not on an edge.
 
-            // Checking the adjacent site to the top of site
-            if (row > 1 && isOpen((row - 1), col)) {
-                int indexToTop = siteIndex((row - 1), col);
-                quickUnionStructure.union(site, indexToTop);
-                quickUnionStructureForFull.union(site, indexToTop);
+        // Checking the adjacent site to the left of site
+        if (col > 1 && testBit(isOpen, site - 1)) {
+            root = connect(root, site - 1);
+        }
+
+        // Checking the adjacent site to the right of site
+        if (col < gridSize && testBit(isOpen, site + 1)) {
+            root = connect(root, site + 1);
+        }
 
+        // Checking the adjacent site to the top of site
+        if (row > 1 && testBit(isOpen, site - gridSize)) {
+            root = connect(root, site - gridSize);
+        }
+
+        // Checking the adjacent site to the bottom of site
+        if (row < gridSize && testBit(isOpen, site + gridSize)) {
+            root = connect(root, site + gridSize);
+        }
+
+        if (!percolated && quickUnionStructure.flags(root) == PercolationUF.BOTH) {
+            percolated = true;
+            if (log != null) {
+                log.markPercolated();
             }
+        }
+        return true;
+    }
+
+    // Merges the cluster of neighbor into the cluster whose root is root,
+    // updating the cluster statistics if they are tracked, and returns the
+    // root of the merged cluster
+    private int connect(int root, int neighbor) {
+        if (clusterSize == null) {
+            return quickUnionStructure.union(root, neighbor);
+        }
 
-            // Checking the adjacent site to the bottom of site
-            if (row < gridSize && isOpen((row + 1), col)) {
-                int indexToBottom = siteIndex((row + 1), col);
-                quickUnionStructure.union(site, indexToBottom);
-                quickUnionStructureForFull.union(site, indexToBottom);
+        int other = quickUnionStructure.find(neighbor);
+        if (other == root) {
+            return root;
+        }
+        int merged = clusterSize[root] + clusterSize[other];
+        sizeHistogram[clusterSize[root]]--;
+        sizeHistogram[clusterSize[other]]--;
+        sizeHistogram[merged]++;
+        clusterCount--;
+
+        // Clusters only ever grow, so the largest one is a running maximum
+        if (merged > largestCluster) {
+            largestCluster = merged;
+        }
+
+        int newRoot = quickUnionStructure.union(root, other);
+        clusterSize[newRoot] = merged;
+        return newRoot;
+    }
 
+    // Records every site opened from now on in log, or stops recording if log
+    // is null. SiteLog.replay rebuilds a grid from empty, so recording must
+    // start on a grid with no open sites and with a log that is still empty.
+    // replay also needs every opening still in the ring, so a log with less
+    // than n * n capacity can only replay until it first wraps; a grid never
+    // opens more than n * n sites, so a capacity of n * n always replays.
+    public void recordTo(SiteLog log) {
+        if (log != null) {
+            if (countOpen != 0) {
+                throw new IllegalStateException(" Recording must start before any site"
+                                                        + " is opened");
+            }
+            if (log.size() != 0) {
+                throw new IllegalArgumentException(" The log already holds openings");
             }
         }
+        this.log = log;
     }
 
     // Is the site (row, col) open?
     public boolean isOpen(int row, int col) {
         int site = siteIndex(row, col);
-        return isOpen[site];
+        return testBit(isOpen, site);
 
     }
 
     // Is the site (row, col) full?
-    // Fullness is modeled by the top row unioning with the virtual top index.
+    // Fullness is modeled by the site's root touching the top row.
     public boolean isFull(int row, int col) {
 
         int site = siteIndex(row, col);
-        return (quickUnionStructureForFull.connected(virtualTopIndex, site) && isOpen[site]);
+        if (!testBit(isOpen, site)) {
+            return false;
+        }
+        int root = quickUnionStructure.find(site);
+        return (quickUnionStructure.flags(root) & PercolationUF.TOP) != 0;
 
     }
 
@@ -191,12 +382,64 @@ public class Percolation {
     // Does the system percolate?
 
     public boolean percolates() {
-        if (gridSize > 1) {
-            return quickUnionStructure.connected(virtualTopIndex, virtualBottomIndex);
+        return percolated;
+    }
+
+    // Throws IllegalStateException unless this grid was created with
+    // trackClusters
+    private void checkTrackingClusters() {
+        if (clusterSize == null) {
+            throw new IllegalStateException(" Cluster statistics are not tracked; create the"
+                                                    + " grid with trackClusters");
         }
-        else {
-            return isOpen[siteIndex(1, 1)];
+    }
+
+    // Returns the number of clusters of open sites
+    public int numberOfClusters() {
+        checkTrackingClusters();
+        return clusterCount;
+    }
+
+    // Returns the number of sites in the largest cluster
+    public int largestClusterSize() {
+        checkTrackingClusters();
+        return largestCluster;
+    }
+
+    // Returns the number of clusters that have exactly size sites
+    public int numberOfClustersOfSize(int size) {
+        checkTrackingClusters();
+        if (size < 1 || size >= sizeHistogram.length) {
+            return 0;
         }
+        return sizeHistogram[size];
+    }
+
+    // Writes the open sites and the union-find of this grid to channel, for
+    // checkpointing. Cluster statistics are not part of the saved state.
+    void writeState(FileChannel channel) throws IOException {
+        if (clusterSize != null) {
+            throw new IllegalStateException(" Grids that track clusters cannot be saved");
+        }
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + 1);
+        header.putInt(countOpen).put((byte) (percolated ? 1 : 0)).flip();
+        ChannelIO.writeFully(channel, header);
+        ChannelIO.writeLongs(channel, isOpen);
+        quickUnionStructure.writeState(channel);
+    }
+
+    // Replaces the state of this grid with one written by writeState for a
+    // grid of the same size
+    void readState(FileChannel channel) throws IOException {
+        if (clusterSize != null) {
+            throw new IllegalStateException(" Grids that track clusters cannot be restored");
+        }
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + 1);
+        ChannelIO.readFully(channel, header);
+        countOpen = header.getInt();
+        percolated = header.get() != 0;
+        ChannelIO.readLongs(channel, isOpen);
+        quickUnionStructure.readState(channel);
     }
 
     public static void main(String[] args) {
@@ -218,6 +461,16 @@ public class Percolation {
         StdOut.println(quickUnionStructure3.percolates());
         quickUnionStructure3.open(5, 2);
         StdOut.println(quickUnionStructure3.percolates());
+
+        Percolation clusters = new Percolation(3, true);
+        clusters.open(1, 1);
+        clusters.open(1, 3);
+        clusters.open(3, 3);
+        StdOut.println(clusters.numberOfClusters());
+        clusters.open(2, 3);
+        StdOut.println(clusters.numberOfClusters());
+        StdOut.println(clusters.largestClusterSize());
+        StdOut.println(clusters.numberOfClustersOfSize(1));
     }
 
 
@@ -0,0 +1,202 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: Micro-benchmarks for Percolation and PercolationStats, so
+ *               regressions in the simulation code show up as numbers instead
+ *               of as slower experiments.
+ *
+ *               Every benchmark runs over grid sizes from 64 up to 8192 and,
+ *               where it matters, over two opening orders:
+ *
+ *                 RANDOM       a uniformly random permutation of the sites
+ *                 ADVERSARIAL  row by row from the bottom up, which keeps the
+ *                              grid from percolating until the top row and
+ *                              grows long clusters for the union-find
+ *
+ *               Each measurement warms up, then runs several timed iterations
+ *               and reports throughput (ops/s) and the bytes allocated per
+ *               operation on the measuring thread, like JMH's gc.alloc.rate.norm.
+ *               A benchmark may have a setup step, such as building a fresh
+ *               grid, that runs before every call outside the timed and
+ *               allocation-counted region; grid construction is measured on
+ *               its own as "construct".
+ *
+ *               Usage: java -Xmx4g PercolationBenchmark [maxN] [statsTrials]
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class PercolationBenchmark {
+
+    // Orders in which a benchmark opens the sites
+    private enum Order { RANDOM, ADVERSARIAL }
+
+    // Grid sizes, doubling from 64 to 8192
+    private static final int MIN_N = 64;
+    private static final int MAX_N = 8192;
+
+    // Largest grid for the full PercolationStats run, which opens sites with
+    // rejection sampling and is much slower per grid than the other benchmarks
+    private static final int MAX_STATS_N = 1024;
+
+    private static final long WARMUP_MILLIS = 500;
+    private static final long ITERATION_MILLIS = 200;
+    private static final int ITERATIONS = 5;
+
+    private static final long SEED = 20200227L;
+
+    // Results are folded in here so the JIT cannot drop the benchmarked calls
+    private static long sink;
+
+    // Written on every percolates() call; a volatile store keeps the JIT from
+    // hoisting the field read that percolates() boils down to out of the loop
+    private static volatile boolean percolatesSink;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Returns the sites of an n-by-n grid, as (row - 1) * n + (col - 1), in
+    // the given order
+    private static int[] sites(int n, Order order) {
+        int count = n * n;
+        int[] sites = new int[count];
+        if (order == Order.ADVERSARIAL) {
+            int k = 0;
+            for (int row = n - 1; row >= 0; row--) {
+                for (int col = 0; col < n; col++) {
+                    sites[k++] = row * n + col;
+                }
+            }
+        }
+        else {
+            SplittableRandom random = new SplittableRandom(SEED);
+            for (int s = 0; s < count; s++) {
+                int r = random.nextInt(s + 1);
+                sites[s] = sites[r];
+                sites[r] = s;
+            }
+        }
+        return sites;
+    }
+
+    // Opens sites in order on pc with open(row, col) until it percolates and
+    // returns the grid
+    private static Percolation openUntilPercolates(Percolation pc, int n, int[] sites) {
+        for (int k = 0; k < sites.length && !pc.percolates(); k++) {
+            int site = sites[k];
+            pc.open(site / n + 1, site % n + 1);
+        }
+        return pc;
+    }
+
+    // Runs body, which performs opsPerCall operations per call, through a
+    // warm-up and ITERATIONS timed iterations, and prints one result line
+    private static void measure(String name, int n, String order, long opsPerCall,
+                                Runnable body) {
+        measure(name, n, order, opsPerCall, () -> null, unused -> body.run());
+    }
+
+    // Like measure(Runnable), but runs setup before every call and passes its
+    // result to body. Only body is timed and has its allocations counted.
+    private static <T> void measure(String name, int n, String order, long opsPerCall,
+                                    Supplier<T> setup, Consumer<T> body) {
+        long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1_000_000L;
+        while (System.nanoTime() < warmupEnd) {
+            body.accept(setup.get());
+        }
+
+        double totalOpsPerSecond = 0;
+        double minOpsPerSecond = Double.POSITIVE_INFINITY;
+        double maxOpsPerSecond = 0;
+        long totalOps = 0;
+        long allocated = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long calls = 0;
+            long timed = 0;
+            long end = System.nanoTime() + ITERATION_MILLIS * 1_000_000L;
+            do {
+                T state = setup.get();
+                long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                body.accept(state);
+                timed += System.nanoTime() - start;
+                allocated += THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+                calls++;
+            } while (System.nanoTime() < end);
+
+            double opsPerSecond = calls * opsPerCall * 1e9 / timed;
+            totalOpsPerSecond += opsPerSecond;
+            minOpsPerSecond = Math.min(minOpsPerSecond, opsPerSecond);
+            maxOpsPerSecond = Math.max(maxOpsPerSecond, opsPerSecond);
+            totalOps += calls * opsPerCall;
+        }
+
+        StdOut.printf("%-12s %6d %-12s %16.1f %16.1f %16.1f %12.3f%n", name, n, order,
+                      totalOpsPerSecond / ITERATIONS, minOpsPerSecond, maxOpsPerSecond,
+                      (double) allocated / totalOps);
+    }
+
+    public static void main(String[] args) {
+        int maxN = args.length > 0 ? Integer.parseInt(args[0]) : MAX_N;
+        int statsTrials = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        StdOut.printf("%-12s %6s %-12s %16s %16s %16s %12s%n", "benchmark", "n", "order",
+                      "ops/s", "min ops/s", "max ops/s", "B/op");
+
+        for (int n = MIN_N; n <= maxN; n *= 2) {
+            final int size = n;
+
+            // Building an empty grid, including its memory check; an operation
+            // is one constructor call
+            measure("construct", size, "-", 1,
+                    () -> sink += new Percolation(size).numberOfOpenSites());
+
+            for (Order order : Order.values()) {
+                int[] sites = sites(size, order);
+
+                // Every call opens a fresh grid, built untimed in setup, up to
+                // the percolation point, so an operation is one open()
+                int opens = openUntilPercolates(new Percolation(size), size, sites)
+                        .numberOfOpenSites();
+                measure("open", size, order.name(), opens, () -> new Percolation(size),
+                        grid -> sink += openUntilPercolates(grid, size, sites)
+                                .numberOfOpenSites());
+
+                // isFull and percolates query a grid at its percolation point
+                Percolation pc = openUntilPercolates(new Percolation(size), size, sites);
+                measure("isFull", size, order.name(), (long) size * size, () -> {
+                    long full = 0;
+                    for (int row = 1; row <= size; row++) {
+                        for (int col = 1; col <= size; col++) {
+                            if (pc.isFull(row, col)) {
+                                full++;
+                            }
+                        }
+                    }
+                    sink += full;
+                });
+                measure("percolates", size, order.name(), (long) size * size, () -> {
+                    for (int k = 0; k < size * size; k++) {
+                        percolatesSink = pc.percolates();
+                    }
+                });
+            }
+
+            // A complete experiment; an operation is one trial
+            if (size <= MAX_STATS_N) {
+                measure("stats", size, "-", statsTrials,
+                        () -> sink += (long) (new PercolationStats(size, statsTrials).mean() * 1e6));
+            }
+        }
+
+        // Keeps sink observable
+        if (sink == 42) {
+            StdOut.println();
+        }
+    }
+}
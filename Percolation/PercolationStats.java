@@ -5,16 +5,71 @@
  *               experiments. By repeating computational experiments a certain
  *               number of times, and then averaging the results, we obtain a
  *               more accurate estimate of the percolation threshold.
+ *
+ *               The seeded constructor runs the trials in parallel on a
+ *               ForkJoinPool. Each trial owns a SplittableRandom split off a
+ *               root generator in trial order, so a given seed reproduces the
+ *               same thresholds regardless of how the trials are scheduled.
+ *
+ *               Sampling.SHUFFLE opens the sites in the order of an incremental
+ *               Fisher-Yates shuffle of the n^2 site indices, so every draw
+ *               opens a new site instead of being rejected.
+ *
+ *               Sampling.SWEEP fixes one random permutation of the sites per
+ *               trial and lets PercolationThreshold find the exact step at
+ *               which it percolates, without a percolates() call per step.
+ *
+ *               Grids larger than Percolation.MAX_N on a side are run with
+ *               rejection sampling on an OffHeapPercolation backed by a
+ *               memory-mapped scratch file of about 8 n^2 bytes. Each worker
+ *               thread creates one scratch file, in a directory the caller
+ *               may choose (java.io.tmpdir by default), maps a grid onto it
+ *               once, and clears that grid between its trials, so at most
+ *               parallelism files and mappings exist at once and no file is
+ *               ever truncated while it is mapped. The files are deleted
+ *               when the experiment ends.
+ *
+ *               The Topology constructor runs the same parallel experiment on
+ *               a LatticePercolation, e.g. a periodic, 8-neighbor or 3D
+ *               lattice, opening its sites in shuffled order.
+ *
+ *               The results are kept as running statistics (Welford's online
+ *               mean and variance) rather than an array of thresholds. The
+ *               tolerance constructor uses that to stream trials until the
+ *               half-width of the 95% confidence interval drops below the
+ *               requested tolerance, in O(1) memory.
+ *
+ *               The checkpoint constructor runs the same seeded trials one at
+ *               a time and periodically saves its progress to a binary file:
+ *               the running statistics of the finished trials, how many random
+ *               draws the current trial has made, and that trial's Percolation
+ *               state. Restarting with the same file resumes exactly where the
+ *               previous run stopped, and gives the same results as a run
+ *               that was never interrupted.
  **************************************************************************** */
 
 import edu.princeton.cs.algs4.StdOut;
 import edu.princeton.cs.algs4.StdRandom;
-import edu.princeton.cs.algs4.StdStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToDoubleFunction;
 
 public class PercolationStats {
 
-    // Holds each experiment's percolation threshold
-    private final double[] percThreshold;
+    // Running mean and variance of each experiment's percolation threshold
+    private final RunningStats percThreshold;
 
     // Tracking the number of independent computational experiments in a n-by-n grid
     private final int experiments;
@@ -22,6 +77,26 @@ public class PercolationStats {
     // A constant for the 95% confidence interval
     private static final double CONFIDENCE_95 = 1.96;
 
+    // Identifies a PercolationStats checkpoint file and its layout
+    private static final int CHECKPOINT_MAGIC = 0x50435350;
+    private static final int CHECKPOINT_VERSION = 1;
+
+    // Fewest trials the tolerance constructor runs before it trusts the
+    // sample standard deviation enough to stop
+    private static final int MIN_CONVERGENCE_TRIALS = 10;
+
+    // How a trial picks the next site to open
+    public enum Sampling {
+        // Draw random (row, col) pairs and retry when the site is already open
+        REJECTION,
+
+        // Open the sites in a random permutation, one new site per draw
+        SHUFFLE,
+
+        // Sweep one random permutation with PercolationThreshold
+        SWEEP
+    }
+
     // Constructor that would throw an IllegalArgumentException if n or trials is
     // not greater than 1.
     public PercolationStats(int n, int trials) {
@@ -29,7 +104,7 @@ public class PercolationStats {
             throw new IllegalArgumentException(" Both n and trials must be greater than 1");
         }
         experiments = trials;
-        percThreshold = new double[experiments];
+        percThreshold = new RunningStats();
 
         for (int t = 0; t < trials; t++) {
             int numOfOpens = 0;
@@ -46,18 +121,512 @@ public class PercolationStats {
             // Invoking numberOfOpenSites from Percolation class to give the
             // the number of open sites.
             numOfOpens = pc.numberOfOpenSites();
-            percThreshold[t] = (double) numOfOpens / (n * n);
+            percThreshold.add((double) numOfOpens / (n * n));
+        }
+    }
+
+    // Constructor that runs the trials in parallel on parallelism worker
+    // threads. The same seed always gives the same results.
+    public PercolationStats(int n, int trials, long seed, int parallelism) {
+        this(n, trials, seed, parallelism, Sampling.REJECTION);
+    }
+
+    // Parallel constructor that also chooses how sites are sampled
+    public PercolationStats(int n, int trials, long seed, int parallelism,
+                            Sampling sampling) {
+        this(n, trials, seed, parallelism, sampling, null);
+    }
+
+    // Parallel constructor that also chooses the directory that holds the
+    // scratch files of grids larger than Percolation.MAX_N, one per worker;
+    // null means java.io.tmpdir
+    public PercolationStats(int n, int trials, long seed, int parallelism,
+                            Sampling sampling, Path scratchDirectory) {
+        if (n < 1 || trials < 1) {
+            throw new IllegalArgumentException(" Both n and trials must be greater than 1");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(" parallelism must be at least 1");
+        }
+        if (sampling == null) {
+            throw new IllegalArgumentException(" sampling must not be null");
+        }
+        if (n > Percolation.MAX_N && sampling != Sampling.REJECTION) {
+            throw new IllegalArgumentException(" Grids larger than " + Percolation.MAX_N
+                                                       + " only support REJECTION sampling");
+        }
+        experiments = trials;
+        try (ScratchGrids scratch = new ScratchGrids(n, scratchDirectory)) {
+            percThreshold = RunningStats.of(runParallel(trials, seed, parallelism,
+                                                        random -> runTrial(n, sampling, random,
+                                                                           scratch)));
+        }
+    }
+
+    // Constructor that runs seeded trials one at a time until the half-width of
+    // the 95% confidence interval, CONFIDENCE_95 * stddev / sqrt(T), is below
+    // tolerance, or until maxTrials trials have run. The trials use the same
+    // random streams as the parallel constructor with the same seed.
+    public PercolationStats(int n, double tolerance, int maxTrials, long seed,
+                            Sampling sampling) {
+        if (n < 1 || maxTrials < 1) {
+            throw new IllegalArgumentException(" Both n and maxTrials must be greater than 1");
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException(" tolerance must be positive");
+        }
+        if (sampling == null) {
+            throw new IllegalArgumentException(" sampling must not be null");
+        }
+        if (n > Percolation.MAX_N && sampling != Sampling.REJECTION) {
+            throw new IllegalArgumentException(" Grids larger than " + Percolation.MAX_N
+                                                       + " only support REJECTION sampling");
+        }
+
+        percThreshold = new RunningStats();
+        SplittableRandom root = new SplittableRandom(seed);
+        try (ScratchGrids scratch = new ScratchGrids(n, null)) {
+            while (percThreshold.count() < maxTrials) {
+                percThreshold.add(runTrial(n, sampling, root.split(), scratch));
+                int count = percThreshold.count();
+                if (count >= MIN_CONVERGENCE_TRIALS
+                        && CONFIDENCE_95 * percThreshold.stddev() / Math.sqrt(count)
+                        < tolerance) {
+                    break;
+                }
+            }
+        }
+        experiments = percThreshold.count();
+    }
+
+    // Constructor that runs seeded REJECTION trials one at a time and saves a
+    // checkpoint to the file checkpoint after every checkpointEvery opened
+    // sites. If checkpoint already holds a checkpoint of the same experiment
+    // (n, trials and seed), the run resumes from it. The results are the same
+    // as those of the parallel constructor with the same seed.
+    public PercolationStats(int n, int trials, long seed, Path checkpoint,
+                            long checkpointEvery) {
+        if (n < 1 || trials < 1) {
+            throw new IllegalArgumentException(" Both n and trials must be greater than 1");
+        }
+        if (n > Percolation.MAX_N) {
+            throw new IllegalArgumentException(" n must be at most " + Percolation.MAX_N);
+        }
+        if (checkpoint == null) {
+            throw new IllegalArgumentException(" checkpoint must not be null");
+        }
+        if (checkpointEvery < 1) {
+            throw new IllegalArgumentException(" checkpointEvery must be at least 1");
+        }
+        experiments = trials;
+
+        RunningStats stats = new RunningStats();
+        Percolation pc = null;
+        long draws = 0;
+        try {
+            if (Files.exists(checkpoint)) {
+                try (FileChannel channel = FileChannel.open(checkpoint, StandardOpenOption.READ)) {
+                    ByteBuffer header = ByteBuffer.allocate(4 * Integer.BYTES + 3 * Long.BYTES
+                                                                    + Double.BYTES * 2 + 1);
+                    ChannelIO.readFully(channel, header);
+                    if (header.getInt() != CHECKPOINT_MAGIC
+                            || header.getInt() != CHECKPOINT_VERSION) {
+                        throw new IllegalArgumentException(" " + checkpoint
+                                                                   + " is not a checkpoint");
+                    }
+                    if (header.getInt() != n || header.getInt() != trials
+                            || header.getLong() != seed) {
+                        throw new IllegalArgumentException(
+                                " " + checkpoint + " belongs to a different experiment");
+                    }
+                    stats = RunningStats.restore(header.getLong(), header.getDouble(),
+                                                 header.getDouble());
+                    draws = header.getLong();
+                    if (header.get() != 0) {
+                        pc = new Percolation(n);
+                        pc.readState(channel);
+                    }
+                }
+            }
+
+            // Trial t uses the t-th generator split off the root, as in the
+            // parallel constructor
+            SplittableRandom root = new SplittableRandom(seed);
+            for (int t = 0; t < stats.count(); t++) {
+                root.split();
+            }
+
+            long sinceCheckpoint = 0;
+            while (stats.count() < trials) {
+                SplittableRandom random = root.split();
+                if (pc == null) {
+                    pc = new Percolation(n);
+                    draws = 0;
+                }
+                else {
+                    // Bring the restored trial's generator back to where it was
+                    for (long d = 0; d < draws; d++) {
+                        random.nextInt(1, n + 1);
+                        random.nextInt(1, n + 1);
+                    }
+                }
+
+                while (!pc.percolates()) {
+                    int i = random.nextInt(1, n + 1);
+                    int j = random.nextInt(1, n + 1);
+                    draws++;
+                    if (!pc.isOpen(i, j)) {
+                        pc.open(i, j);
+                        if (++sinceCheckpoint >= checkpointEvery && !pc.percolates()) {
+                            writeCheckpoint(checkpoint, n, trials, seed, stats, draws, pc);
+                            sinceCheckpoint = 0;
+                        }
+                    }
+                }
+                stats.add((double) pc.numberOfOpenSites() / (n * n));
+                pc = null;
+
+                if (sinceCheckpoint >= checkpointEvery || stats.count() == trials) {
+                    writeCheckpoint(checkpoint, n, trials, seed, stats, 0, null);
+                    sinceCheckpoint = 0;
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        percThreshold = stats;
+    }
+
+    // Atomically replaces file with a checkpoint holding the finished trials'
+    // statistics and, if pc is not null, the trial in flight after draws draws
+    private static void writeCheckpoint(Path file, int n, int trials, long seed,
+                                        RunningStats stats, long draws, Percolation pc)
+            throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(4 * Integer.BYTES + 3 * Long.BYTES
+                                                            + Double.BYTES * 2 + 1);
+            header.putInt(CHECKPOINT_MAGIC).putInt(CHECKPOINT_VERSION)
+                  .putInt(n).putInt(trials).putLong(seed)
+                  .putLong(stats.count()).putDouble(stats.mean).putDouble(stats.m2)
+                  .putLong(draws).put((byte) (pc == null ? 0 : 1))
+                  .flip();
+            ChannelIO.writeFully(channel, header);
+            if (pc != null) {
+                pc.writeState(channel);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Constructor that runs the parallel experiment on a lattice with the
+    // given topology instead of an n-by-n grid
+    public PercolationStats(Topology topology, int trials, long seed, int parallelism) {
+        if (topology == null) {
+            throw new IllegalArgumentException(" topology must not be null");
+        }
+        if (trials < 1) {
+            throw new IllegalArgumentException(" trials must be greater than 1");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(" parallelism must be at least 1");
+        }
+        experiments = trials;
+        percThreshold = RunningStats.of(runParallel(trials, seed, parallelism,
+                                                    random -> latticeTrial(topology, random)));
+    }
+
+    // Runs trials copies of trial on a pool of parallelism workers and returns
+    // their results in trial order
+    private static double[] runParallel(int trials, long seed, int parallelism,
+                                        ToDoubleFunction<SplittableRandom> trial) {
+        double[] results = new double[trials];
+
+        // Splitting the generators up front and in trial order keeps every
+        // trial's random stream independent of the thread that runs it.
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[trials];
+        for (int t = 0; t < trials; t++) {
+            streams[t] = root.split();
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new TrialTask(trial, streams, results, 0, trials));
+        }
+        finally {
+            pool.shutdown();
         }
+        return results;
+    }
+
+    // Runs a single trial with its own random stream and returns the fraction
+    // of sites that were open when the system first percolated.
+    private static double runTrial(int n, Sampling sampling, SplittableRandom random,
+                                   ScratchGrids scratch) {
+        switch (sampling) {
+            case SHUFFLE:
+                return shuffleTrial(n, random);
+            case SWEEP:
+                return sweepTrial(n, random);
+            default:
+                return rejectionTrial(n, random, scratch);
+        }
+    }
+
+    // Draws (row, col) pairs uniformly and skips the ones that are already open
+    private static double rejectionTrial(int n, SplittableRandom random,
+                                         ScratchGrids scratch) {
+        if (n > Percolation.MAX_N) {
+            return offHeapTrial(n, random, scratch);
+        }
+        Percolation pc = new Percolation(n);
+
+        while (!pc.percolates()) {
+            int i = random.nextInt(1, n + 1);
+            int j = random.nextInt(1, n + 1);
+            if (!pc.isOpen(i, j)) {
+                pc.open(i, j);
+            }
+        }
+        return (double) pc.numberOfOpenSites() / (n * n);
+    }
+
+    // Rejection sampling on a grid that is too large for the heap. The grid
+    // is the calling worker's scratch grid, which it clears and reuses from
+    // trial to trial.
+    private static double offHeapTrial(int n, SplittableRandom random, ScratchGrids scratch) {
+        OffHeapPercolation pc = scratch.grid();
+        while (!pc.percolates()) {
+            int i = random.nextInt(1, n + 1);
+            int j = random.nextInt(1, n + 1);
+            if (!pc.isOpen(i, j)) {
+                pc.open(i, j);
+            }
+        }
+        return pc.numberOfOpenSites() / ((double) n * n);
+    }
+
+    // Opens the sites in the order of a Fisher-Yates shuffle that is only
+    // carried out as far as the trial needs. Step k swaps a random index from
+    // [k, n^2) into position k, so every draw opens a site that is still closed.
+    private static double shuffleTrial(int n, SplittableRandom random) {
+        Percolation pc = new Percolation(n);
+        int sites = n * n;
+        int[] order = new int[sites];
+        for (int s = 0; s < sites; s++) {
+            order[s] = s;
+        }
+
+        for (int k = 0; !pc.percolates(); k++) {
+            int r = k + random.nextInt(sites - k);
+            int site = order[r];
+            order[r] = order[k];
+            order[k] = site;
+            pc.open(site / n + 1, site % n + 1);
+        }
+        return (double) pc.numberOfOpenSites() / sites;
+    }
+
+    // Shuffles all n^2 sites and sweeps the permutation once to find the exact
+    // number of opens at which the grid percolates
+    private static double sweepTrial(int n, SplittableRandom random) {
+        int sites = n * n;
+        int[] order = new int[sites];
+        for (int s = 0; s < sites; s++) {
+            int r = random.nextInt(s + 1);
+            order[s] = order[r];
+            order[r] = s;
+        }
+        return (double) PercolationThreshold.openSitesToPercolate(n, order) / sites;
+    }
+
+    // Opens the sites of a lattice in the order of an incremental Fisher-Yates
+    // shuffle, like shuffleTrial
+    private static double latticeTrial(Topology topology, SplittableRandom random) {
+        LatticePercolation lattice = new LatticePercolation(topology);
+        int sites = topology.sites();
+        int[] order = new int[sites];
+        for (int s = 0; s < sites; s++) {
+            order[s] = s;
+        }
+
+        for (int k = 0; !lattice.percolates(); k++) {
+            int r = k + random.nextInt(sites - k);
+            int site = order[r];
+            order[r] = order[k];
+            order[k] = site;
+            lattice.open(site);
+        }
+        return (double) lattice.numberOfOpenSites() / sites;
+    }
+
+    // Splits the range of trials [lo, hi) in half until a single trial is
+    // left, which lets idle workers steal the remaining halves.
+    @SuppressWarnings("serial")
+    private static class TrialTask extends RecursiveAction {
+        private final ToDoubleFunction<SplittableRandom> trial;
+        private final SplittableRandom[] streams;
+        private final double[] results;
+        private final int lo;
+        private final int hi;
+
+        TrialTask(ToDoubleFunction<SplittableRandom> trial, SplittableRandom[] streams,
+                  double[] results, int lo, int hi) {
+            this.trial = trial;
+            this.streams = streams;
+            this.results = results;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                results[lo] = trial.applyAsDouble(streams[lo]);
+            }
+            else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new TrialTask(trial, streams, results, lo, mid),
+                          new TrialTask(trial, streams, results, mid, hi));
+            }
+        }
+    }
+
+    // One n-by-n OffHeapPercolation per thread, mapped onto a scratch file in
+    // a directory. A thread's grid and file are created on its first call to
+    // grid; later calls clear and return the same grid, so a file is never
+    // truncated or remapped while an old mapping of it is still alive. The
+    // grids are closed and the files deleted on close.
+    private static final class ScratchGrids implements AutoCloseable {
+        private final int n;
+        private final Path directory;
+        private final ThreadLocal<OffHeapPercolation> grids = new ThreadLocal<OffHeapPercolation>();
+        private final ConcurrentLinkedQueue<OffHeapPercolation> opened
+                = new ConcurrentLinkedQueue<OffHeapPercolation>();
+        private final ConcurrentLinkedQueue<Path> created = new ConcurrentLinkedQueue<Path>();
+
+        // Uses directory, or java.io.tmpdir if directory is null
+        ScratchGrids(int n, Path directory) {
+            if (directory == null) {
+                directory = Paths.get(System.getProperty("java.io.tmpdir"));
+            }
+            if (!Files.isDirectory(directory)) {
+                throw new IllegalArgumentException(" " + directory + " is not a directory");
+            }
+            this.n = n;
+            this.directory = directory;
+        }
+
+        // Returns the calling thread's grid, with every site blocked
+        OffHeapPercolation grid() {
+            OffHeapPercolation grid = grids.get();
+            if (grid != null) {
+                grid.clear();
+                return grid;
+            }
+            Path file;
+            try {
+                file = Files.createTempFile(directory, "percolation", ".grid");
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            created.add(file);
+            grid = new OffHeapPercolation(n, file);
+            opened.add(grid);
+            grids.set(grid);
+            return grid;
+        }
+
+        @Override
+        public void close() {
+            for (OffHeapPercolation grid : opened) {
+                grid.close();
+            }
+            for (Path file : created) {
+                try {
+                    Files.deleteIfExists(file);
+                }
+                catch (IOException e) {
+                    // The file is only garbage once the experiment is done.
+                    // A platform that cannot delete a file while it is still
+                    // mapped gets another chance at exit.
+                    file.toFile().deleteOnExit();
+                }
+            }
+        }
+    }
+
+    // Welford's online algorithm for the mean and sample variance of a stream
+    // of values, which needs neither the values nor a second pass
+    private static final class RunningStats {
+        private int count;
+        private double mean;
+
+        // Sum of squared differences from the current mean
+        private double m2;
+
+        // Recreates statistics saved from count, mean and m2
+        static RunningStats restore(long count, double mean, double m2) {
+            if (count < 0 || count > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(" Invalid trial count " + count);
+            }
+            RunningStats stats = new RunningStats();
+            stats.count = (int) count;
+            stats.mean = mean;
+            stats.m2 = m2;
+            return stats;
+        }
+
+        // Folds the values in array order
+        static RunningStats of(double[] values) {
+            RunningStats stats = new RunningStats();
+            for (double value : values) {
+                stats.add(value);
+            }
+            return stats;
+        }
+
+        void add(double value) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+
+        int count() {
+            return count;
+        }
+
+        double mean() {
+            return count == 0 ? Double.NaN : mean;
+        }
+
+        // Sample standard deviation, NaN for fewer than two values
+        double stddev() {
+            return Math.sqrt(m2 / (count - 1));
+        }
+    }
+
+    // Returns the number of trials that were run
+    public int trials() {
+        return experiments;
     }
 
     // Sample mean of percolation threshold
     public double mean() {
-        return StdStats.mean(percThreshold);
+        return percThreshold.mean();
     }
 
     // Sample standard deviation
     public double stddev() {
-        return StdStats.stddev(percThreshold);
+        return percThreshold.stddev();
     }
 
     // Low endpoint of 95% confidence interval
@@ -76,7 +645,22 @@ public class PercolationStats {
     public static void main(String[] args) {
         int n = Integer.parseInt(args[0]);
         int trials = Integer.parseInt(args[1]);
-        PercolationStats stats = new PercolationStats(n, trials);
+        PercolationStats stats;
+
+        // An optional seed switches to the parallel, reproducible experiment,
+        // an optional sampling name (REJECTION, SHUFFLE or SWEEP) after it
+        // chooses how sites are drawn, and an optional directory after that
+        // holds the scratch files of grids too large for the heap.
+        if (args.length > 2) {
+            long seed = Long.parseLong(args[2]);
+            int parallelism = Runtime.getRuntime().availableProcessors();
+            Sampling sampling = args.length > 3 ? Sampling.valueOf(args[3]) : Sampling.REJECTION;
+            Path scratch = args.length > 4 ? Paths.get(args[4]) : null;
+            stats = new PercolationStats(n, trials, seed, parallelism, sampling, scratch);
+        }
+        else {
+            stats = new PercolationStats(n, trials);
+        }
         StdOut.println(" mean                    = " + stats.mean());
         StdOut.println(" standard deviation      = " + stats.stddev());
         StdOut.println(" 95% confidence interval = " + stats.confidenceLo() +
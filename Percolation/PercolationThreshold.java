@@ -0,0 +1,93 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: PercolationThreshold finds the exact point at which an n-by-n
+ *               grid percolates when its sites are opened in a fixed order.
+ *
+ *               Sites are numbered 0 through n^2 - 1 from left to right and
+ *               top to bottom, so site (row, col) is (row - 1) * n + (col - 1).
+ *
+ *               Instead of asking percolates() after every open, it relies on
+ *               the top/bottom flags that PercolationUF merges on every union:
+ *               the first time a root carries both of them the grid
+ *               percolates. A whole trial is therefore
+ *               a single pass over the order with no extra find() calls.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+public final class PercolationThreshold {
+
+    private PercolationThreshold() { }
+
+    // Returns how many sites of order have to be opened, in order, before the
+    // n-by-n grid percolates, or -1 if it still does not percolate after the
+    // whole order has been opened.
+    public static int openSitesToPercolate(int n, int[] order) {
+        if (n <= 0) {
+            throw new IllegalArgumentException(" n must be at least 1. ");
+        }
+        if (order == null) {
+            throw new IllegalArgumentException(" order must not be null");
+        }
+
+        if (n > Percolation.MAX_N) {
+            throw new IllegalArgumentException(" n must be at most " + Percolation.MAX_N);
+        }
+
+        int sites = n * n;
+        long[] isOpen = new long[Percolation.bitsetWords(sites)];
+        PercolationUF uf = new PercolationUF(sites);
+
+        for (int k = 0; k < order.length; k++) {
+            int site = order[k];
+            if (site < 0 || site >= sites) {
+                throw new IllegalArgumentException(" Site index " + site + " is out of bounds");
+            }
+            if (Percolation.testBit(isOpen, site)) {
+                throw new IllegalArgumentException(" Site index " + site + " is opened twice");
+            }
+
+            Percolation.setBit(isOpen, site);
+            int row = site / n;
+            int col = site % n;
+            int flags = 0;
+            if (row == 0) {
+                flags |= PercolationUF.TOP;
+            }
+            if (row == n - 1) {
+                flags |= PercolationUF.BOTTOM;
+            }
+
+            int root = uf.mark(site, flags);
+            if (col > 0 && Percolation.testBit(isOpen, site - 1)) {
+                root = uf.union(root, site - 1);
+            }
+            if (col < n - 1 && Percolation.testBit(isOpen, site + 1)) {
+                root = uf.union(root, site + 1);
+            }
+            if (row > 0 && Percolation.testBit(isOpen, site - n)) {
+                root = uf.union(root, site - n);
+            }
+            if (row < n - 1 && Percolation.testBit(isOpen, site + n)) {
+                root = uf.union(root, site + n);
+            }
+
+            if (uf.flags(root) == PercolationUF.BOTH) {
+                return k + 1;
+            }
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) {
+        // Opening the middle column of a 3-by-3 grid top to bottom percolates
+        // on the third site.
+        StdOut.println(openSitesToPercolate(3, new int[] { 1, 4, 7 }));
+
+        // A single row never connects the top to the bottom.
+        StdOut.println(openSitesToPercolate(3, new int[] { 0, 1, 2 }));
+
+        StdOut.println(openSitesToPercolate(1, new int[] { 0 }));
+    }
+}
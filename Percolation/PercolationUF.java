@@ -0,0 +1,111 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: A union-find specialized for percolation. The whole structure
+ *               is a single int array:
+ *
+ *                 id[p] >= 0   p is not a root and id[p] is its parent
+ *                 id[p] <  0   p is a root and ~id[p] packs its rank in the
+ *                              high bits and two flags in the low bits
+ *
+ *               The TOP flag says the component touches the top row and the
+ *               BOTTOM flag says it touches the bottom row. Flags are merged
+ *               on every union, which replaces both the virtual top/bottom
+ *               sites and the second union-find that was needed to avoid
+ *               backwash: a site is full when its root has TOP, and the grid
+ *               percolates when any root has both flags.
+ *
+ *               find() uses path halving and union() links by rank, so every
+ *               operation runs in near-constant amortized time without
+ *               allocating.
+ **************************************************************************** */
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+final class PercolationUF {
+
+    // The component touches the top row
+    static final int TOP = 1;
+
+    // The component touches the bottom row
+    static final int BOTTOM = 2;
+
+    // The component connects the top row to the bottom row
+    static final int BOTH = TOP | BOTTOM;
+
+    // Number of low bits of a root entry used for flags
+    private static final int FLAG_BITS = 2;
+
+    private final int[] id;
+
+    // Creates size singleton components without flags
+    PercolationUF(int size) {
+        id = new int[size];
+        Arrays.fill(id, ~0);
+    }
+
+    // Returns the root of the component containing p
+    int find(int p) {
+        while (id[p] >= 0) {
+            int parent = id[p];
+            if (id[parent] >= 0) {
+                // Path halving: point p at its grandparent and skip ahead
+                id[p] = id[parent];
+            }
+            p = id[p];
+        }
+        return p;
+    }
+
+    // Returns the flags of the component whose root is root
+    int flags(int root) {
+        return ~id[root] & BOTH;
+    }
+
+    // Adds flags to the component containing p and returns its root
+    int mark(int p, int flags) {
+        int root = find(p);
+        id[root] &= ~flags;
+        return root;
+    }
+
+    // Merges the components containing p and q and returns the new root
+    int union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ) {
+            return rootP;
+        }
+
+        int wordP = ~id[rootP];
+        int wordQ = ~id[rootQ];
+        int rankP = wordP >>> FLAG_BITS;
+        int rankQ = wordQ >>> FLAG_BITS;
+        int flags = (wordP | wordQ) & BOTH;
+
+        // Link the root of lower rank under the root of higher rank
+        if (rankP < rankQ) {
+            id[rootP] = rootQ;
+            id[rootQ] = ~((rankQ << FLAG_BITS) | flags);
+            return rootQ;
+        }
+        if (rankP == rankQ) {
+            rankP++;
+        }
+        id[rootQ] = rootP;
+        id[rootP] = ~((rankP << FLAG_BITS) | flags);
+        return rootP;
+    }
+
+    // Writes the whole structure to channel
+    void writeState(FileChannel channel) throws IOException {
+        ChannelIO.writeInts(channel, id);
+    }
+
+    // Replaces the whole structure with one written by writeState
+    void readState(FileChannel channel) throws IOException {
+        ChannelIO.readInts(channel, id);
+    }
+}
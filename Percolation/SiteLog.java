@@ -0,0 +1,118 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: SiteLog records the order in which a Percolation grid opens
+ *               its sites, to debug where and when a grid percolated.
+ *
+ *               Openings are appended to a preallocated int ring buffer, so
+ *               recording never allocates. Each opening gets a sequence
+ *               number, counted from 0; once more than capacity sites have
+ *               been opened, the oldest entries are overwritten. A site is
+ *               logged as its index (row - 1) * n + (col - 1), the same index
+ *               Percolation.openAll(int[]) takes.
+ *
+ *               The log also remembers which opening made the grid percolate,
+ *               and replay rebuilds the grid as it was after any number of
+ *               openings, starting from an empty grid, as long as no opening
+ *               has been overwritten yet. A log of capacity n * n never wraps
+ *               for an n-by-n grid.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+public class SiteLog {
+
+    private final int[] sites;
+
+    // Number of openings appended so far, including overwritten ones
+    private long appended;
+
+    // Sequence number of the opening that made the grid percolate, or -1
+    private long percolatedAt = -1;
+
+    // Creates a log that keeps the last capacity openings
+    public SiteLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(" capacity must be at least 1");
+        }
+        sites = new int[capacity];
+    }
+
+    // Records the opening of site
+    void append(int site) {
+        sites[(int) (appended % sites.length)] = site;
+        appended++;
+    }
+
+    // Records that the last appended opening made the grid percolate
+    void markPercolated() {
+        if (percolatedAt < 0) {
+            percolatedAt = appended - 1;
+        }
+    }
+
+    // Returns the number of entries the ring buffer holds
+    public int capacity() {
+        return sites.length;
+    }
+
+    // Returns the number of openings recorded so far
+    public long size() {
+        return appended;
+    }
+
+    // Returns the sequence number of the oldest opening still in the log
+    public long oldest() {
+        return Math.max(0, appended - sites.length);
+    }
+
+    // Returns the site opened by the opening with the given sequence number
+    public int site(long sequence) {
+        if (sequence < oldest() || sequence >= appended) {
+            throw new IllegalArgumentException(" Opening " + sequence + " is not in the log");
+        }
+        return sites[(int) (sequence % sites.length)];
+    }
+
+    // Returns the sequence number of the opening that made the grid
+    // percolate, or -1 if it has not percolated while being recorded
+    public long percolationStep() {
+        return percolatedAt;
+    }
+
+    // Rebuilds an n-by-n grid as it was after the first steps openings. The
+    // log must still hold every opening, so it throws once the ring has
+    // wrapped, even for a small steps.
+    public Percolation replay(int n, long steps) {
+        if (steps < 0 || steps > appended) {
+            throw new IllegalArgumentException(" steps must be between 0 and " + appended);
+        }
+        if (oldest() > 0) {
+            throw new IllegalStateException(" The first " + oldest()
+                                                    + " openings have been overwritten");
+        }
+        int[] prefix = new int[(int) steps];
+        System.arraycopy(sites, 0, prefix, 0, prefix.length);
+        Percolation pc = new Percolation(n);
+        pc.openAll(prefix);
+        return pc;
+    }
+
+    public static void main(String[] args) {
+        Percolation pc = new Percolation(3);
+        SiteLog log = new SiteLog(9);
+        pc.recordTo(log);
+
+        pc.open(1, 2);
+        pc.open(3, 1);
+        pc.open(2, 2);
+        pc.open(3, 2);
+        pc.open(2, 3);
+
+        StdOut.println(log.size());
+        StdOut.println(log.percolationStep());
+        StdOut.println(log.site(log.percolationStep()));
+        StdOut.println(log.replay(3, 3).percolates());
+        StdOut.println(log.replay(3, 4).percolates());
+    }
+}
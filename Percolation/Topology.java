@@ -0,0 +1,56 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: A Topology describes a lattice for LatticePercolation as a
+ *               flat range of site indices 0 through sites() - 1 plus a
+ *               neighbor stencil over those indices. The top and bottom
+ *               boundaries say which sites start out touching the virtual
+ *               top and bottom, so percolation means a cluster connects the
+ *               two boundaries.
+ *
+ *               The static factories cover the common lattices: 2D square
+ *               grids with 4 or 8 neighbors, optionally periodic (a cylinder
+ *               that wraps left to right), and 3D cubic lattices that
+ *               percolate from the first layer to the last, optionally
+ *               periodic in both horizontal directions.
+ **************************************************************************** */
+
+public interface Topology {
+
+    // Returns the number of sites in the lattice
+    int sites();
+
+    // Returns the largest number of neighbors any site can have
+    int maxNeighbors();
+
+    // Writes the neighbors of site into neighbors, which has room for at least
+    // maxNeighbors() entries, and returns how many were written
+    int neighbors(int site, int[] neighbors);
+
+    // Does site lie on the top boundary?
+    boolean isTop(int site);
+
+    // Does site lie on the bottom boundary?
+    boolean isBottom(int site);
+
+    // n-by-n square grid with 4-neighbor connectivity, like Percolation
+    static Topology square(int n) {
+        return new GridTopology(n, false, false);
+    }
+
+    // n-by-n square grid whose left and right sides wrap around
+    static Topology periodicSquare(int n) {
+        return new GridTopology(n, true, false);
+    }
+
+    // n-by-n square grid with 8-neighbor (Moore) connectivity
+    static Topology squareWithDiagonals(int n, boolean periodic) {
+        return new GridTopology(n, periodic, true);
+    }
+
+    // n-by-n-by-n cubic lattice with 6-neighbor connectivity that percolates
+    // from the first layer to the last
+    static Topology cubic(int n, boolean periodic) {
+        return new CubicTopology(n, periodic);
+    }
+}
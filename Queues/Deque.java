@@ -5,8 +5,12 @@
  *               adding and removing items from either the front or the back.
  **************************************************************************** */
 
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 public class Deque<Item> implements Iterable<Item> {
     private Node first;
@@ -15,6 +19,11 @@ public class Deque<Item> implements Iterable<Item> {
     // size of LinkedList
     private int count;
 
+    // Number of structural changes, checked by the iterators. Removed nodes
+    // are unlinked and cleared, so a stale iterator must fail rather than
+    // follow them.
+    private int modCount;
+
     // Initializes a deque
     public Deque() {
         first = null;
@@ -70,6 +79,7 @@ public class Deque<Item> implements Iterable<Item> {
         } */
 
         count++;
+        modCount++;
     }
 
 
@@ -105,6 +115,7 @@ public class Deque<Item> implements Iterable<Item> {
         } */
 
         count++;
+        modCount++;
 
     }
 
@@ -129,7 +140,12 @@ public class Deque<Item> implements Iterable<Item> {
         }
 
         count--;
+        modCount++;
         item = oldFirst.item;
+
+        // Drop the removed node's links so it does not keep items reachable
+        oldFirst.item = null;
+        oldFirst.next = null;
         return item;
     }
 
@@ -151,20 +167,242 @@ public class Deque<Item> implements Iterable<Item> {
         }
 
         count--;
+        modCount++;
         /*  return oldLast.item; */
 
         item = oldLast.item;
+
+        // Drop the removed node's links so it does not keep items reachable
+        oldLast.item = null;
+        oldLast.previous = null;
         return item;
     }
 
+    // Add all items to the back, in order, so the last of them ends up last.
+    // Nothing is added if any item is null.
+    public void addAllLast(Item[] items) {
+        if (items == null)
+            throw new IllegalArgumentException();
+        spliceAll(Arrays.asList(items), false);
+    }
+
+    // Add all items to the back, in iteration order
+    public void addAllLast(Iterable<? extends Item> items) {
+        spliceAll(items, false);
+    }
+
+    // Add all items to the front, in order, so the first of them ends up
+    // first. Nothing is added if any item is null.
+    public void addAllFirst(Item[] items) {
+        if (items == null)
+            throw new IllegalArgumentException();
+        spliceAll(Arrays.asList(items), true);
+    }
+
+    // Add all items to the front, in iteration order
+    public void addAllFirst(Iterable<? extends Item> items) {
+        spliceAll(items, true);
+    }
+
+    // Links the items into a chain of their own, then splices the whole chain
+    // onto one end of the list in a single step. A null item aborts before
+    // the deque is touched.
+    private void spliceAll(Iterable<? extends Item> items, boolean atFront) {
+        if (items == null)
+            throw new IllegalArgumentException();
+
+        Node head = null;
+        Node tail = null;
+        int added = 0;
+        for (Item item : items) {
+            if (item == null)
+                throw new IllegalArgumentException();
+
+            Node curr = new Node();
+            curr.item = item;
+            if (head == null) {
+                head = curr;
+            }
+            else {
+                tail.next = curr;
+                curr.previous = tail;
+            }
+            tail = curr;
+            added++;
+        }
+        if (added == 0)
+            return;
+
+        if (isEmpty()) {
+            first = head;
+            last = tail;
+        }
+        else if (atFront) {
+            tail.next = first;
+            first.previous = tail;
+            first = head;
+        }
+        else {
+            last.next = head;
+            head.previous = last;
+            last = tail;
+        }
+        count += added;
+        modCount++;
+    }
+
+    // Remove up to max items from the front into dst, starting at dst[0], and
+    // return how many were removed
+    public int drainFirst(Item[] dst, int max) {
+        int n = drainCount(dst, max);
+        Node curr = first;
+        for (int i = 0; i < n; i++) {
+            Node next = curr.next;
+            dst[i] = curr.item;
+            curr.item = null;
+            curr.previous = null;
+            curr.next = null;
+            curr = next;
+        }
+
+        first = curr;
+        if (first != null) {
+            first.previous = null;
+        }
+        else {
+            last = null;
+        }
+        count -= n;
+        modCount++;
+        return n;
+    }
+
+    // Remove up to max items from the back into dst, starting at dst[0], and
+    // return how many were removed. dst[0] receives the last item.
+    public int drainLast(Item[] dst, int max) {
+        int n = drainCount(dst, max);
+        Node curr = last;
+        for (int i = 0; i < n; i++) {
+            Node previous = curr.previous;
+            dst[i] = curr.item;
+            curr.item = null;
+            curr.previous = null;
+            curr.next = null;
+            curr = previous;
+        }
+
+        last = curr;
+        if (last != null) {
+            last.next = null;
+        }
+        else {
+            first = null;
+        }
+        count -= n;
+        modCount++;
+        return n;
+    }
+
+    // Number of items a drain of at most max items into dst removes
+    private int drainCount(Item[] dst, int max) {
+        if (dst == null || max < 0)
+            throw new IllegalArgumentException();
+        return Math.min(Math.min(max, dst.length), count);
+    }
+
     @Override
     public Iterator<Item> iterator() {
         return new ListIterator();
     }
 
 
+    // Returns a spliterator that knows its exact size and splits in half, so
+    // parallel streams over the deque divide the work evenly
+    @Override
+    public Spliterator<Item> spliterator() {
+        return new ListSpliterator(first, count, modCount);
+    }
+
+    // Covers the next remaining nodes starting at current. Splitting walks to
+    // the middle of the range and hands the first half to the new
+    // spliterator, so both halves know their exact size.
+    private class ListSpliterator implements Spliterator<Item> {
+        private Node current;
+        private int remaining;
+        private final int expectedModCount;
+
+        ListSpliterator(Node current, int remaining, int expectedModCount) {
+            this.current = current;
+            this.remaining = remaining;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Item> action) {
+            if (action == null)
+                throw new NullPointerException();
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                return false;
+
+            Item item = current.item;
+            current = current.next;
+            remaining--;
+            action.accept(item);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Item> action) {
+            if (action == null)
+                throw new NullPointerException();
+
+            // Checked on every step, since a removed node no longer links on
+            Node node = current;
+            for (int i = 0; i < remaining; i++) {
+                if (expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+                action.accept(node.item);
+                node = node.next;
+            }
+            current = node;
+            remaining = 0;
+        }
+
+        @Override
+        public Spliterator<Item> trySplit() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            if (remaining < 2)
+                return null;
+
+            int half = remaining / 2;
+            Node start = current;
+            Node mid = current;
+            for (int i = 0; i < half; i++) {
+                mid = mid.next;
+            }
+            current = mid;
+            remaining -= half;
+            return new ListSpliterator(start, half, expectedModCount);
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+                    | Spliterator.NONNULL;
+        }
+    }
+
     private class ListIterator implements Iterator<Item> {
         private Node current = first;
+        private final int expectedModCount = modCount;
 
         @Override
         public boolean hasNext() {
@@ -173,6 +411,8 @@ public class Deque<Item> implements Iterable<Item> {
 
         @Override
         public Item next() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
             if (!hasNext())
                 throw new NoSuchElementException();
 
@@ -0,0 +1,163 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: A double-ended queue of int values. It works like RingDeque,
+ *               a power-of-two circular array with masked head and tail, but
+ *               stores the values in an int[] so adding, removing and
+ *               iterating never box and never allocate in steady state.
+ *
+ *               The iterator is a PrimitiveIterator.OfInt, so nextInt() reads
+ *               values without boxing. It is fail-fast like RingDeque's.
+ **************************************************************************** */
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+public class IntDeque {
+
+    // Smallest array the deque ever shrinks to
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] values;
+
+    // Index of the first value
+    private int head;
+
+    // size of the deque
+    private int count;
+
+    // Number of structural changes, checked by the iterators
+    private int modCount;
+
+    // Initializes an empty deque
+    public IntDeque() {
+        values = new int[MIN_CAPACITY];
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    // Returns the number of values in the deque
+    public int size() {
+        return count;
+    }
+
+    // Moves the values to a new array of the given power-of-two length, with
+    // the first value at index 0
+    private void resize(int capacity) {
+        int[] newValues = new int[capacity];
+        int firstRun = Math.min(count, values.length - head);
+        System.arraycopy(values, head, newValues, 0, firstRun);
+        System.arraycopy(values, 0, newValues, firstRun, count - firstRun);
+        values = newValues;
+        head = 0;
+    }
+
+    // Add the value to the front
+    public void addFirst(int value) {
+        if (count == values.length) {
+            resize(2 * values.length);
+        }
+        head = (head - 1) & (values.length - 1);
+        values[head] = value;
+        count++;
+        modCount++;
+    }
+
+    // Add the value to the back of the deque
+    public void addLast(int value) {
+        if (count == values.length) {
+            resize(2 * values.length);
+        }
+        values[(head + count) & (values.length - 1)] = value;
+        count++;
+        modCount++;
+    }
+
+    // Remove and return the value from the front
+    public int removeFirst() {
+        if (isEmpty())
+            throw new NoSuchElementException("Deque is empty.");
+
+        int value = values[head];
+        head = (head + 1) & (values.length - 1);
+        count--;
+        modCount++;
+        shrinkIfSparse();
+        return value;
+    }
+
+    // Remove and return the value from the back
+    public int removeLast() {
+        if (isEmpty())
+            throw new NoSuchElementException("Deque is empty.");
+
+        int value = values[(head + count - 1) & (values.length - 1)];
+        count--;
+        modCount++;
+        shrinkIfSparse();
+        return value;
+    }
+
+    // Halve the array once it is only a quarter full
+    private void shrinkIfSparse() {
+        if (values.length > MIN_CAPACITY && count <= values.length / 4) {
+            resize(values.length / 2);
+        }
+    }
+
+    // Returns an iterator over the values from front to back
+    public PrimitiveIterator.OfInt iterator() {
+        return new RingIterator();
+    }
+
+    private class RingIterator implements PrimitiveIterator.OfInt {
+        private int index = 0;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return index < count;
+        }
+
+        @Override
+        public int nextInt() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            return values[(head + index++) & (values.length - 1)];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // Driver code
+    public static void main(String[] args) {
+        IntDeque test = new IntDeque();
+
+        for (int i = 0; i < 50; i++) {
+            if (i % 2 == 0) test.addFirst(i);
+            else test.addLast(i);
+        }
+        System.out.println(test.size());
+
+        PrimitiveIterator.OfInt iter = test.iterator();
+        while (iter.hasNext()) {
+            System.out.print(iter.nextInt() + " ");
+        }
+        System.out.println();
+
+        for (int i = 0; i < 50; i++) {
+            if (i % 2 == 0) test.removeLast();
+            else test.removeFirst();
+        }
+        System.out.println(test.isEmpty());
+    }
+}
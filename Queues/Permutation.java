@@ -4,28 +4,49 @@
  *  Description: This program takes an integer k as a command-line argument;
  *               reads a sequence of strings from the standard input and then
  *               prints exactly k of them, uniformly at random.
+ *
+ *               Usage: java Permutation k [file [parallelism]]
+ *
+ *               The strings are read from file if one is given, otherwise
+ *               from standard input. Only k strings are ever held in memory,
+ *               however long the input is. A file is sampled in parallel,
+ *               by default on every available processor.
  **************************************************************************** */
 
-import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
 public class Permutation {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
 
         int k = Integer.parseInt(args[0]);
-        RandomizedQueue<String> rq = new RandomizedQueue<String>();
-
-        for (int i = 0; i < k; i++) {
-            rq.enqueue(StdIn.readString());
+        SplittableRandom rng = new SplittableRandom();
+
+        // Keep a uniform sample of k strings as the input streams past
+        String[] sample;
+        if (args.length > 1) {
+            int parallelism = Runtime.getRuntime().availableProcessors();
+            if (args.length > 2) {
+                parallelism = Integer.parseInt(args[2]);
+            }
+            sample = ReservoirSampler.sample(Paths.get(args[1]), k, rng.split(), parallelism);
+        }
+        else {
+            sample = ReservoirSampler.sample(System.in, k, rng.split()).items();
         }
 
-        // System.out.println("\nFinished testing enqueue ********");
+        // The sample may not be in random order, so shuffle it on the way out
+        RandomizedQueue<String> rq = new RandomizedQueue<String>(rng.split());
+        for (String s : sample) {
+            rq.enqueue(s);
+        }
 
-        for (int i = 0; i < k; i++) {
+        while (!rq.isEmpty()) {
             StdOut.println(rq.dequeue());
         }
-        //   System.out.println("\nFinished testing dequeue ********");
-
 
     }
 }
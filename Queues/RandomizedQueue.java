@@ -8,8 +8,13 @@
 
 import edu.princeton.cs.algs4.StdRandom;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
 public class RandomizedQueue<Item> implements Iterable<Item> {
 
@@ -18,12 +23,38 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
 
     private Item[] data;
 
+    // Number of enqueues and dequeues, checked by the iterators
+    private int modCount;
+
+    // This queue's own generator, or null to share StdRandom's
+    private final RandomGenerator rng;
+
     // Construct an empty randomized queue
     // @SuppressWarnings("unchecked")
     public RandomizedQueue() {
         numelements = 0;
         data = (Item[]) new Object[4];
+        rng = null;
+
+    }
+
+    // Construct an empty randomized queue that draws from its own generator.
+    // A queue with its own generator does not contend with other threads
+    // for StdRandom's, and gives the same results whenever the generator
+    // starts in the same state.
+    public RandomizedQueue(RandomGenerator rng) {
+        if (rng == null) {
+            throw new IllegalArgumentException(" The generator must not be null.");
+        }
+        numelements = 0;
+        data = (Item[]) new Object[4];
+        this.rng = rng;
+    }
 
+    // Construct an empty randomized queue with its own SplittableRandom
+    // generator, seeded with seed
+    public RandomizedQueue(long seed) {
+        this(new SplittableRandom(seed));
     }
 
     // Is the queue empty?
@@ -38,6 +69,14 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
 
     }
 
+    // Return a random int in [0, bound)
+    private int uniform(int bound) {
+        if (rng == null) {
+            return StdRandom.uniform(bound);
+        }
+        return rng.nextInt(bound);
+    }
+
     // Resize array as needed
     private void resize(int newSize) {
         // @SuppressWarnings("unchecked")
@@ -65,6 +104,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
             resize(2 * data.length);
         }
         data[numelements++] = item;
+        modCount++;
 
     }
 
@@ -74,7 +114,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
             throw new NoSuchElementException(" The randomized queue is empty.");
         }
         // Generate a random item index
-        int randomItemIndex = StdRandom.uniform(numelements);
+        int randomItemIndex = uniform(numelements);
 
         // Place the data from the randomItemIndex location into randval
         Item randval = data[randomItemIndex];
@@ -94,6 +134,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
 
         }
         numelements -= 1;
+        modCount++;
 
 
         // Shrink the size of array data if necessary
@@ -109,67 +150,312 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         if (numelements == 0) {
             throw new NoSuchElementException();
         }
-        return data[StdRandom.uniform(numelements)];
+        return data[uniform(numelements)];
     }
 
+    // Copy k distinct random items into dst[0, k) without removing them. A
+    // partial Fisher-Yates shuffle swaps each pick into the tail of data, and
+    // the swaps are then undone in reverse, so the queue is left exactly as
+    // it was. Takes O(k).
+    public void sample(int k, Item[] dst) {
+        checkBatch(k, dst);
+        int[] picks = new int[k];
+        for (int i = 0; i < k; i++) {
+            int last = numelements - 1 - i;
+            picks[i] = uniform(last + 1);
+            swap(picks[i], last);
+            dst[i] = data[last];
+        }
+        for (int i = k - 1; i >= 0; i--) {
+            swap(picks[i], numelements - 1 - i);
+        }
+    }
+
+    // Remove k distinct random items, copying them into dst[0, k). The picks
+    // are gathered into the tail of data by a partial Fisher-Yates shuffle
+    // and cut off together, and the array is resized at most once. Takes
+    // O(k), plus the copy if the array shrinks.
+    public void dequeue(int k, Item[] dst) {
+        checkBatch(k, dst);
+        for (int i = 0; i < k; i++) {
+            int last = numelements - 1;
+            swap(uniform(numelements), last);
+            dst[i] = data[last];
+            data[last] = null;
+            numelements--;
+        }
+        modCount++;
+
+        // Shrink by the same rule as dequeue, but in a single step
+        int newSize = data.length;
+        while (numelements > 0 && numelements <= newSize / 4) {
+            newSize /= 2;
+        }
+        if (newSize != data.length) {
+            resize(newSize);
+        }
+    }
 
-    // Return an independent iterator over items in a random order
+    private void checkBatch(int k, Item[] dst) {
+        if (dst == null) {
+            throw new IllegalArgumentException(" The destination array must not be null.");
+        }
+        if (k < 0 || k > numelements) {
+            throw new IllegalArgumentException(" k must be between 0 and the queue size.");
+        }
+        if (dst.length < k) {
+            throw new IllegalArgumentException(" The destination array is too small.");
+        }
+    }
+
+    private void swap(int i, int j) {
+        Item temp = data[i];
+        data[i] = data[j];
+        data[j] = temp;
+    }
+
+
+    // Return an iterator over items in a random order; see
+    // RandomizedQueueIterator. Unlike the snapshot iterator this queue used
+    // to return, it reads the live queue, so it throws a
+    // ConcurrentModificationException once the queue is enqueued to or
+    // dequeued from. Iterators remain independent of each other: each walks
+    // its own random order. Use snapshotIterator to keep iterating while the
+    // queue changes.
     public Iterator<Item> iterator() {
         return new RandomizedQueueIterator();
 
     }
 
-    private class RandomizedQueueIterator implements Iterator<Item> {
+    // Return an independent iterator over a shuffled copy of the items, which
+    // is unaffected by later changes to the queue. It costs O(n) time and
+    // memory to create, however few items are taken.
+    public Iterator<Item> snapshotIterator() {
+        return new SnapshotIterator<>(shuffledCopy());
+    }
 
-        private int current;
+    private static class SnapshotIterator<Item> implements Iterator<Item> {
 
-        private final Item[] iteratorItems;
+        private final Item[] snapshot;
 
+        private int current;
 
-        public RandomizedQueueIterator() {
-            current = 0;    // first index
-            iteratorItems = (Item[]) new Object[numelements];
+        SnapshotIterator(Item[] snapshot) {
+            this.snapshot = snapshot;
+        }
 
+        @Override
+        public boolean hasNext() {
+            return current < snapshot.length;
+        }
 
-            for (int j = 0; j < numelements; j++) {
-                iteratorItems[j] = data[j];
+        @Override
+        public Item next() {
+            if (current >= snapshot.length) {
+                throw new NoSuchElementException(" No more elements in the randomized queue.");
             }
+            return snapshot[current++];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+
+        }
+    }
+
+    // Return an independent spliterator over the items in a random order. It
+    // covers a snapshot of the queue, shuffled as it is copied, so every
+    // piece a parallel stream splits off holds a random subset of the items
+    // rather than a slice of the queue's array. The shuffle draws from the
+    // queue's generator, so a seeded queue gives a reproducible order.
+    @Override
+    public Spliterator<Item> spliterator() {
+        return new RandomizedQueueSpliterator<>(shuffledCopy(), 0, numelements);
+    }
 
-            // Doing random shuffling of iteratorItems array
-            StdRandom.shuffle(iteratorItems, 0, numelements);
+    // Return a copy of the items in a random order drawn from the queue's
+    // generator
+    private Item[] shuffledCopy() {
+        Item[] snapshot = (Item[]) new Object[numelements];
+        // Inside-out Fisher-Yates: copy each item to a random position among
+        // those filled so far, moving the old occupant to the end
+        for (int i = 0; i < numelements; i++) {
+            int r = uniform(i + 1);
+            snapshot[i] = snapshot[r];
+            snapshot[r] = data[i];
+        }
+        return snapshot;
+    }
 
+    // Covers snapshot[index, end) of an already shuffled snapshot, and splits
+    // it in half so parallel streams get evenly sized pieces
+    private static class RandomizedQueueSpliterator<Item> implements Spliterator<Item> {
+        private final Item[] snapshot;
+        private int index;
+        private final int end;
+
+        RandomizedQueueSpliterator(Item[] snapshot, int index, int end) {
+            this.snapshot = snapshot;
+            this.index = index;
+            this.end = end;
         }
 
+        @Override
+        public boolean tryAdvance(Consumer<? super Item> action) {
+            if (action == null)
+                throw new NullPointerException();
+            if (index >= end)
+                return false;
+
+            action.accept(snapshot[index++]);
+            return true;
+        }
 
         @Override
-        public boolean hasNext() {
-            return current < numelements;
+        public Spliterator<Item> trySplit() {
+            int mid = (index + end) >>> 1;
+            if (mid <= index)
+                return null;
+
+            int start = index;
+            index = mid;
+            return new RandomizedQueueSpliterator<>(snapshot, start, mid);
         }
 
         @Override
-        public Item next() {
-            /*
-            if (current == 0) {
-                throw new NoSuchElementException(" The randomized queue is empty.");
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+    }
+
+    // Walks the queue in the order of a pseudo-random permutation of the
+    // indices [0, n), computed one index at a time, so creating the iterator
+    // is O(1) and taking k items costs O(k) with no copy of the queue.
+    //
+    // The permutation is a Feistel network with random round keys over the
+    // smallest domain [0, 4^h) that covers n. Because it is a bijection on
+    // that domain, stepping a counter through the domain and skipping outputs
+    // that are n or more visits every index below n exactly once; the domain
+    // is less than 4n, so fewer than four steps are needed per item on
+    // average. A Feistel network over a small domain is measurably biased
+    // with few rounds, so queues of at most EXACT_LIMIT items are instead
+    // shuffled exactly, one Fisher-Yates step per item, over an index array
+    // of at most 4 KiB, and larger ones use eight rounds.
+    //
+    // The iterator reads the live queue, so it is fail-fast: it throws a
+    // ConcurrentModificationException if the queue is changed while it is in
+    // use. snapshotIterator gives the old copying behaviour.
+    private class RandomizedQueueIterator implements Iterator<Item> {
+
+        private static final int ROUNDS = 8;
+
+        // Largest queue that is shuffled exactly instead
+        private static final int EXACT_LIMIT = 1024;
+
+        private final int size = numelements;
+
+        private final int expectedModCount = modCount;
+
+        // Lazily shuffled indices for small queues, or null
+        private final int[] order;
+
+        // Number of bits in each half of a domain value
+        private final int halfBits;
+
+        private final int halfMask;
+
+        // One key per Feistel round
+        private final int[] keys;
+
+        // Next value of the domain to permute
+        private long counter;
+
+        // Number of items returned so far
+        private int current;
+
+        public RandomizedQueueIterator() {
+            if (size <= EXACT_LIMIT) {
+                order = new int[size];
+                for (int j = 0; j < size; j++) {
+                    order[j] = j;
+                }
+                halfBits = 0;
+                halfMask = 0;
+                keys = null;
+                return;
             }
-            else {
 
-                int index = StdRandom.uniform(current);
-                Item obj = iteratorItems[index];
-                iteratorItems[index] = iteratorItems[--current];
+            order = null;
+            int bits = 1;
+            while ((1L << (2 * bits)) < size) {
+                bits++;
+            }
+            halfBits = bits;
+            halfMask = (1 << bits) - 1;
 
-                return obj;
+            keys = new int[ROUNDS];
+            for (int r = 0; r < ROUNDS; r++) {
+                keys[r] = uniform(Integer.MAX_VALUE);
+            }
+        }
 
-                 */
+        // Mixes half of a domain value with a round key
+        private int round(int half, int key) {
+            int h = (half ^ key) * 0x9E3779B1;
+            h ^= h >>> 15;
+            h *= 0x85EBCA77;
+            h ^= h >>> 13;
+            return h & halfMask;
+        }
 
+        // Maps a domain value to a domain value; a bijection for fixed keys
+        private long permute(long value) {
+            int left = (int) (value >>> halfBits);
+            int right = (int) value & halfMask;
+            for (int r = 0; r < ROUNDS; r++) {
+                int next = left ^ round(right, keys[r]);
+                left = right;
+                right = next;
+            }
+            return ((long) left << halfBits) | right;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public Item next() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
             // Current index is at the end of the randomized queue
-            if (current >= numelements) {
+            if (current >= size) {
                 throw new NoSuchElementException(" No more elements in the randomized queue.");
             }
-            else {
-                Item obj = iteratorItems[current++];
-                return obj;
+
+            if (order != null) {
+                // Swap a random remaining index into position current
+                int r = current + uniform(size - current);
+                int index = order[r];
+                order[r] = order[current];
+                order[current++] = index;
+                return data[index];
             }
+
+            long index;
+            do {
+                index = permute(counter++);
+            } while (index >= size);
+            current++;
+            return data[(int) index];
         }
 
         @Override
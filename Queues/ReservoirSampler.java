@@ -0,0 +1,401 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: Keeps a uniform random sample of k whitespace-separated
+ *               tokens from a byte stream of any length, in O(k) memory.
+ *               Uses Li's Algorithm L, which jumps straight to the next
+ *               token that enters the sample, so the tokens in between are
+ *               only counted and never decoded into strings.
+ *
+ *               A large file can also be sampled in parallel: it is cut into
+ *               ranges that end on line boundaries, each range is sampled on
+ *               its own worker, and the per-range samples are merged into
+ *               one sample that is still uniform over the whole file.
+ **************************************************************************** */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+final class ReservoirSampler {
+
+    // Largest region of a file mapped at once
+    private static final long MAX_MAPPING = 1L << 30;
+
+    // Size of the buffer standard input is read through
+    private static final int STREAM_BUFFER = 1 << 16;
+
+    // Smallest range worth handing to a worker of a parallel sample
+    private static final long MIN_RANGE = 1L << 20;
+
+    // Largest nominal range of a parallel sample. The range is then
+    // stretched to the end of its last line, which may take it up to
+    // MAX_MAPPING.
+    private static final long MAX_RANGE = MAX_MAPPING / 2;
+
+    private final int k;
+
+    private final RandomGenerator rng;
+
+    // The sample; reservoir[0, min(k, count)) is filled. It starts small
+    // and doubles up to k as tokens arrive, so the many range samplers of a
+    // parallel sample each hold only what their range needs.
+    private String[] reservoir;
+
+    // Number of tokens started so far
+    private long count;
+
+    // Number (1-based) of the next token past the first k to enter the
+    // sample
+    private long next;
+
+    // Algorithm L's running weight
+    private double w;
+
+    // Whether the last byte scanned was part of a token
+    private boolean inToken;
+
+    // Whether the current token enters the sample
+    private boolean keep;
+
+    // Bytes of the current token, if it is kept; a token can be split across
+    // the buffers passed to scan
+    private byte[] token = new byte[64];
+
+    private int tokenLength;
+
+    ReservoirSampler(int k, RandomGenerator rng) {
+        if (k < 0) {
+            throw new IllegalArgumentException(" k must not be negative.");
+        }
+        if (rng == null) {
+            throw new IllegalArgumentException(" The generator must not be null.");
+        }
+        this.k = k;
+        this.rng = rng;
+        reservoir = new String[Math.min(k, 16)];
+        next = Long.MAX_VALUE;
+    }
+
+    // Sample the tokens of a file, mapping it MAX_MAPPING bytes at a time
+    static ReservoirSampler sample(Path file, int k, RandomGenerator rng) throws IOException {
+        ReservoirSampler sampler = new ReservoirSampler(k, rng);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long offset = 0; offset < size; offset += MAX_MAPPING) {
+                long length = Math.min(MAX_MAPPING, size - offset);
+                sampler.scan(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+            }
+        }
+        sampler.finish();
+        return sampler;
+    }
+
+    // Sample the tokens of a stream, reading it through a fixed buffer
+    static ReservoirSampler sample(InputStream in, int k, RandomGenerator rng) throws IOException {
+        ReservoirSampler sampler = new ReservoirSampler(k, rng);
+        ReadableByteChannel channel = Channels.newChannel(in);
+        ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER);
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            sampler.scan(buffer);
+            buffer.clear();
+        }
+        sampler.finish();
+        return sampler;
+    }
+
+    // Sample k tokens of a file on parallelism workers, and return them; all
+    // of them if the file has at most k. The order of the result is not
+    // specified. With one worker the file is scanned in order by a single
+    // sampler, with no ranges to cut or merge.
+    //
+    // The file is cut into about four ranges per worker, each ending just
+    // after a newline, so no token straddles two ranges. Each range is mapped
+    // and sampled on its own, with a generator split off rng in range order,
+    // so the result depends only on rng and not on how the ranges are
+    // scheduled. The samples are then merged one item at a time: a range is
+    // drawn with probability proportional to the number of its tokens not
+    // yet drawn, and a random item not yet taken from its sample is taken.
+    // That draws from the file's tokens without replacement, exactly as one
+    // sampler over the whole file would.
+    static String[] sample(Path file, int k, RandomGenerator.SplittableGenerator rng,
+                           int parallelism) throws IOException {
+        if (k < 0) {
+            throw new IllegalArgumentException(" k must not be negative.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(" parallelism must be at least 1");
+        }
+        if (parallelism == 1) {
+            return sample(file, k, rng).items();
+        }
+
+        ReservoirSampler[] samplers;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = ranges(channel, parallelism);
+            int count = bounds.length - 1;
+            samplers = new ReservoirSampler[count];
+            for (int r = 0; r < count; r++) {
+                samplers[r] = new ReservoirSampler(k, rng.split());
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new RangeTask(channel, bounds, samplers, 0, count));
+            }
+            catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+        return merge(samplers, k, rng);
+    }
+
+    // Return the boundaries of the ranges a file is cut into: range r is
+    // [bounds[r], bounds[r + 1]), and every range but the last ends just
+    // after a newline
+    private static long[] ranges(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long nominal = size / (4L * parallelism) + 1;
+        nominal = Math.min(MAX_RANGE, Math.max(MIN_RANGE, nominal));
+
+        long[] bounds = new long[(int) (size / nominal) + 2];
+        int count = 0;
+        long start = 0;
+        while (start < size) {
+            long end = start + nominal;
+            if (end < size) {
+                end = nextLine(channel, end, start + MAX_MAPPING);
+            }
+            else {
+                end = size;
+            }
+            bounds[count++] = start;
+            start = end;
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    // Return the position just after the first newline at or past from, or
+    // the end of the file if there is none. A line that would carry its
+    // range past limit is too long to map.
+    private static long nextLine(FileChannel channel, long from, long limit) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER);
+        long position = from;
+        while (position < limit) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return position;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        throw new IOException(" A line near byte " + from + " is too long to sample in parallel");
+    }
+
+    // Merge per-range samples into one uniform sample of the union
+    private static String[] merge(ReservoirSampler[] samplers, int k, RandomGenerator rng) {
+        String[][] items = new String[samplers.length][];
+        long[] remaining = new long[samplers.length];
+        int[] taken = new int[samplers.length];
+        long total = 0;
+        for (int r = 0; r < samplers.length; r++) {
+            items[r] = samplers[r].items();
+            remaining[r] = samplers[r].count();
+            total += remaining[r];
+        }
+
+        String[] result = new String[(int) Math.min(k, total)];
+        for (int i = 0; i < result.length; i++) {
+            // Draw a range in proportion to its tokens not yet drawn
+            long x = rng.nextLong(total);
+            int r = 0;
+            while (x >= remaining[r]) {
+                x -= remaining[r];
+                r++;
+            }
+
+            // Take a random item not yet taken from that range's sample
+            String[] sample = items[r];
+            int j = taken[r] + rng.nextInt(sample.length - taken[r]);
+            result[i] = sample[j];
+            sample[j] = sample[taken[r]];
+            taken[r]++;
+            remaining[r]--;
+            total--;
+        }
+        return result;
+    }
+
+    // Splits the ranges [lo, hi) in half until a single range is left, which
+    // is then mapped and sampled
+    @SuppressWarnings("serial")
+    private static class RangeTask extends RecursiveAction {
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final ReservoirSampler[] samplers;
+        private final int lo;
+        private final int hi;
+
+        RangeTask(FileChannel channel, long[] bounds, ReservoirSampler[] samplers,
+                  int lo, int hi) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.samplers = samplers;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                long offset = bounds[lo];
+                long length = bounds[lo + 1] - offset;
+                try {
+                    samplers[lo].scan(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                samplers[lo].finish();
+            }
+            else if (hi > lo) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new RangeTask(channel, bounds, samplers, lo, mid),
+                          new RangeTask(channel, bounds, samplers, mid, hi));
+            }
+        }
+    }
+
+    // Scan the remaining bytes of buffer. A token still open at the end
+    // continues into the next call, or is ended by finish.
+    void scan(ByteBuffer buffer) {
+        int limit = buffer.limit();
+        int i = buffer.position();
+        while (i < limit) {
+            if (!inToken) {
+                // Skip whitespace up to the start of the next token
+                while (i < limit && isSpace(buffer.get(i))) {
+                    i++;
+                }
+                if (i == limit) {
+                    break;
+                }
+                startToken();
+            }
+
+            // Find the end of the token within this buffer
+            int start = i;
+            while (i < limit && !isSpace(buffer.get(i))) {
+                i++;
+            }
+            if (keep) {
+                append(buffer, start, i - start);
+            }
+            if (i < limit) {
+                endToken();
+            }
+        }
+        buffer.position(limit);
+    }
+
+    // End the token the input stopped in, if any
+    void finish() {
+        if (inToken) {
+            endToken();
+        }
+    }
+
+    // Return the number of tokens seen
+    long count() {
+        return count;
+    }
+
+    // Return the sampled tokens: all of them if there were at most k,
+    // otherwise k of them chosen uniformly at random. The order is not
+    // random; the first k tokens start out in input order.
+    String[] items() {
+        return Arrays.copyOf(reservoir, (int) Math.min(k, count));
+    }
+
+    // Tokens are separated by ASCII whitespace
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\n' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+
+    private void startToken() {
+        inToken = true;
+        count++;
+        keep = count <= k || count == next;
+        tokenLength = 0;
+    }
+
+    private void append(ByteBuffer buffer, int start, int length) {
+        if (tokenLength + length > token.length) {
+            token = Arrays.copyOf(token, Math.max(2 * token.length, tokenLength + length));
+        }
+        buffer.get(start, token, tokenLength, length);
+        tokenLength += length;
+    }
+
+    private void endToken() {
+        inToken = false;
+        if (!keep) {
+            return;
+        }
+        String s = new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+        if (count <= k) {
+            if (count > reservoir.length) {
+                reservoir = Arrays.copyOf(reservoir, (int) Math.min(k, 2L * reservoir.length));
+            }
+            reservoir[(int) count - 1] = s;
+            if (count == k) {
+                w = Math.exp(Math.log(uniform()) / k);
+                skip();
+            }
+        }
+        else {
+            reservoir[rng.nextInt(k)] = s;
+            w *= Math.exp(Math.log(uniform()) / k);
+            skip();
+        }
+    }
+
+    // Choose the next token to enter the sample; the gap to it is
+    // geometric with parameter w. log1p keeps the gap accurate once w is
+    // tiny, deep into a long stream.
+    private void skip() {
+        double gap = Math.floor(Math.log(uniform()) / Math.log1p(-w));
+        if (!(gap >= 0.0 && gap < Long.MAX_VALUE - count)) {
+            next = Long.MAX_VALUE;
+        }
+        else {
+            next = count + (long) gap + 1;
+        }
+    }
+
+    // Return a random double in (0, 1]
+    private double uniform() {
+        return 1.0 - rng.nextDouble();
+    }
+}
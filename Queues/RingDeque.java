@@ -0,0 +1,248 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: Implementation of a double-ended queue backed by a circular
+ *               array instead of a linked list. It supports the same
+ *               operations as Deque without allocating a node per item.
+ *
+ *               The array length is always a power of two, so head and tail
+ *               wrap around with a bit mask. The array doubles when it is full
+ *               and halves when it is a quarter full, which keeps every
+ *               operation amortized constant time.
+ *
+ *               Iterators are fail-fast: they throw a
+ *               ConcurrentModificationException if the deque is changed
+ *               while they are in use.
+ **************************************************************************** */
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+public class RingDeque<Item> implements Iterable<Item> {
+
+    // Smallest array the deque ever shrinks to
+    private static final int MIN_CAPACITY = 8;
+
+    private Item[] items;
+
+    // Index of the first item
+    private int head;
+
+    // size of the deque
+    private int count;
+
+    // Number of structural changes, checked by the iterators
+    private int modCount;
+
+    // Initializes an empty deque
+    public RingDeque() {
+        items = (Item[]) new Object[MIN_CAPACITY];
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    // Returns the number of items in the deque
+    public int size() {
+        return count;
+    }
+
+    // Moves the items to a new array of the given power-of-two length, with the
+    // first item at index 0
+    private void resize(int capacity) {
+        Item[] newItems = (Item[]) new Object[capacity];
+        int mask = items.length - 1;
+        for (int i = 0; i < count; i++) {
+            newItems[i] = items[(head + i) & mask];
+        }
+        items = newItems;
+        head = 0;
+    }
+
+    // Add the item to the front
+    public void addFirst(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException();
+
+        if (count == items.length) {
+            resize(2 * items.length);
+        }
+        head = (head - 1) & (items.length - 1);
+        items[head] = item;
+        count++;
+        modCount++;
+    }
+
+    // Add the item to the back of the deque
+    public void addLast(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException();
+
+        if (count == items.length) {
+            resize(2 * items.length);
+        }
+        items[(head + count) & (items.length - 1)] = item;
+        count++;
+        modCount++;
+    }
+
+    // Remove and return the item from the front
+    public Item removeFirst() {
+        if (isEmpty())
+            throw new NoSuchElementException("Deque is empty.");
+
+        Item item = items[head];
+        items[head] = null;
+        head = (head + 1) & (items.length - 1);
+        count--;
+        modCount++;
+        shrinkIfSparse();
+        return item;
+    }
+
+    // Remove and return the item from the back
+    public Item removeLast() {
+        if (isEmpty())
+            throw new NoSuchElementException("Deque is empty.");
+
+        int tail = (head + count - 1) & (items.length - 1);
+        Item item = items[tail];
+        items[tail] = null;
+        count--;
+        modCount++;
+        shrinkIfSparse();
+        return item;
+    }
+
+    // Halve the array once it is only a quarter full
+    private void shrinkIfSparse() {
+        if (items.length > MIN_CAPACITY && count <= items.length / 4) {
+            resize(items.length / 2);
+        }
+    }
+
+    @Override
+    public Iterator<Item> iterator() {
+        return new RingIterator();
+    }
+
+    // Returns a fail-fast spliterator that splits the array range in half
+    @Override
+    public Spliterator<Item> spliterator() {
+        return new RingSpliterator(0, count, modCount);
+    }
+
+    // Covers the items at offsets [index, end) from head
+    private class RingSpliterator implements Spliterator<Item> {
+        private int index;
+        private final int end;
+        private final int expectedModCount;
+
+        RingSpliterator(int index, int end, int expectedModCount) {
+            this.index = index;
+            this.end = end;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Item> action) {
+            if (action == null)
+                throw new NullPointerException();
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            if (index >= end)
+                return false;
+
+            action.accept(items[(head + index++) & (items.length - 1)]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Item> action) {
+            if (action == null)
+                throw new NullPointerException();
+
+            Item[] a = items;
+            int mask = a.length - 1;
+            for (int i = index; i < end; i++) {
+                action.accept(a[(head + i) & mask]);
+            }
+            index = end;
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public Spliterator<Item> trySplit() {
+            int mid = (index + end) >>> 1;
+            if (mid <= index)
+                return null;
+
+            int start = index;
+            index = mid;
+            return new RingSpliterator(start, mid, expectedModCount);
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+                    | Spliterator.NONNULL;
+        }
+    }
+
+    private class RingIterator implements Iterator<Item> {
+        private int index = 0;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return index < count;
+        }
+
+        @Override
+        public Item next() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            return items[(head + index++) & (items.length - 1)];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // Driver code
+    public static void main(String[] args) {
+        RingDeque<Integer> test = new RingDeque<Integer>();
+
+        for (int i = 0; i < 50; i++) {
+            if (i % 2 == 0) test.addFirst(i);
+            else test.addLast(i);
+        }
+        System.out.println(test.size());
+
+        for (int item : test) {
+            System.out.print(item + " ");
+        }
+        System.out.println();
+
+        for (int i = 0; i < 50; i++) {
+            if (i % 2 == 0) test.removeLast();
+            else test.removeFirst();
+        }
+        System.out.println(test.isEmpty());
+    }
+}
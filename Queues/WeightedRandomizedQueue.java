@@ -0,0 +1,219 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: A randomized queue whose items carry positive weights. The
+ *               item removed or sampled is chosen with probability
+ *               proportional to its weight. Items are kept in the same
+ *               swap-with-last array layout as RandomizedQueue, with a
+ *               Fenwick tree of weights over the array positions, so enqueue,
+ *               dequeue and sample each take O(log n).
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.ToDoubleFunction;
+
+public class WeightedRandomizedQueue<Item> {
+
+    // size of the queue
+    private int numelements;
+
+    private Item[] data;
+
+    // weights[i] is the weight of data[i]
+    private double[] weights;
+
+    // Fenwick tree over weights; tree[j] (1-based) holds the sum of the
+    // weights at positions (j - lowbit(j), j]
+    private double[] tree;
+
+    // Scratch space the same size as weights, where updateWeights collects
+    // the new weights before committing any of them
+    private double[] pending;
+
+    // Construct an empty weighted randomized queue
+    public WeightedRandomizedQueue() {
+        numelements = 0;
+        data = (Item[]) new Object[4];
+        weights = new double[4];
+        pending = new double[4];
+        tree = new double[5];
+    }
+
+    // Is the queue empty?
+    public boolean isEmpty() {
+        return numelements == 0;
+    }
+
+    // Return the number of items on the queue
+    public int size() {
+        return numelements;
+    }
+
+    // Return the sum of the weights of the items on the queue
+    public double totalWeight() {
+        return prefixSum(numelements);
+    }
+
+    // Add the item with the given weight
+    public void enqueue(Item item, double weight) {
+        if (item == null) {
+            throw new IllegalArgumentException(" The item must not be null.");
+        }
+        checkWeight(weight);
+        if (numelements == data.length) {
+            resize(2 * data.length);
+        }
+        data[numelements] = item;
+        weights[numelements] = weight;
+        add(numelements, weight);
+        numelements++;
+    }
+
+    // Remove and return a random item, chosen with probability proportional
+    // to its weight
+    public Item dequeue() {
+        if (isEmpty()) {
+            throw new NoSuchElementException(" The randomized queue is empty.");
+        }
+        int index = randomIndex();
+        Item randval = data[index];
+        int last = numelements - 1;
+
+        // Move the last item into the hole, fixing up the tree at both
+        // positions
+        add(index, weights[last] - weights[index]);
+        add(last, -weights[last]);
+        data[index] = data[last];
+        weights[index] = weights[last];
+        data[last] = null;
+        weights[last] = 0.0;
+        numelements--;
+
+        // Shrink the arrays if necessary
+        if (numelements > 0 && numelements == data.length / 4) {
+            resize(data.length / 2);
+        }
+        return randval;
+    }
+
+    // Return (but do not remove) a random item, chosen with probability
+    // proportional to its weight
+    public Item sample() {
+        if (isEmpty()) {
+            throw new NoSuchElementException(" The randomized queue is empty.");
+        }
+        return data[randomIndex()];
+    }
+
+    // Replace the weight of every item with weigher's value for it. The new
+    // weights are collected and checked first, then the tree is rebuilt from
+    // them in O(n), which also clears any rounding error left by earlier
+    // updates. If weigher returns a weight that is not positive and finite,
+    // an IllegalArgumentException is thrown and no weight is changed.
+    public void updateWeights(ToDoubleFunction<? super Item> weigher) {
+        if (weigher == null) {
+            throw new IllegalArgumentException(" The weigher must not be null.");
+        }
+        for (int i = 0; i < numelements; i++) {
+            double weight = weigher.applyAsDouble(data[i]);
+            checkWeight(weight);
+            pending[i] = weight;
+        }
+        System.arraycopy(pending, 0, weights, 0, numelements);
+        rebuild();
+    }
+
+    private static void checkWeight(double weight) {
+        if (!(weight > 0.0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException(" The weight must be positive and finite.");
+        }
+    }
+
+    // Resize the arrays, rebuilding the tree from the weights. Rebuilding
+    // also clears any rounding error enqueue and dequeue have built up.
+    private void resize(int newSize) {
+        Item[] newData = (Item[]) new Object[newSize];
+        double[] newWeights = new double[newSize];
+        System.arraycopy(data, 0, newData, 0, numelements);
+        System.arraycopy(weights, 0, newWeights, 0, numelements);
+        data = newData;
+        weights = newWeights;
+        pending = new double[newSize];
+        tree = new double[newSize + 1];
+        rebuild();
+    }
+
+    // Build the tree from the weights in O(n). Every node passes its sum up
+    // to its parent, including the empty nodes past the last item, which
+    // carry sums on to parents above them.
+    private void rebuild() {
+        Arrays.fill(tree, 0.0);
+        for (int j = 1; j < tree.length; j++) {
+            tree[j] += weights[j - 1];
+            int parent = j + (j & -j);
+            if (parent < tree.length) {
+                tree[parent] += tree[j];
+            }
+        }
+    }
+
+    // Add delta to the weight at array position index
+    private void add(int index, double delta) {
+        for (int j = index + 1; j < tree.length; j += j & -j) {
+            tree[j] += delta;
+        }
+    }
+
+    // Return the sum of the weights at positions [0, count)
+    private double prefixSum(int count) {
+        double sum = 0.0;
+        for (int j = count; j > 0; j -= j & -j) {
+            sum += tree[j];
+        }
+        return sum;
+    }
+
+    // Return a position chosen with probability proportional to its weight,
+    // by descending the tree to the first position whose prefix sum exceeds
+    // a uniform point in [0, total)
+    private int randomIndex() {
+        double target = StdRandom.uniform() * prefixSum(numelements);
+        int pos = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] <= target) {
+                pos = next;
+                target -= tree[next];
+            }
+        }
+        // Rounding can push the descent past the last item; clamp it back
+        return Math.min(pos, numelements - 1);
+    }
+
+    // Unit testing
+    public static void main(String[] args) {
+        WeightedRandomizedQueue<String> wrq = new WeightedRandomizedQueue<String>();
+        wrq.enqueue("light", 1.0);
+        wrq.enqueue("medium", 2.0);
+        wrq.enqueue("heavy", 7.0);
+        StdOut.println("Total weight: " + wrq.totalWeight());
+
+        int heavy = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (wrq.sample().equals("heavy")) {
+                heavy++;
+            }
+        }
+        StdOut.println("heavy sampled " + heavy + " times out of 10000");
+
+        wrq.updateWeights(s -> s.length());
+        StdOut.println("Total weight after update: " + wrq.totalWeight());
+        while (!wrq.isEmpty()) {
+            StdOut.println(wrq.dequeue());
+        }
+    }
+}
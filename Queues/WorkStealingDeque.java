@@ -0,0 +1,182 @@
+/* *****************************************************************************
+ *  Name: Stella Soh
+ *  Date: 10/18/2026
+ *  Description: A concurrent work-stealing deque in the style of Chase and Lev,
+ *               for schedulers where each worker owns one deque.
+ *
+ *               The owner thread pushes and pops items at the bottom end
+ *               without any CAS. Any other thread may steal items from the
+ *               top end; thieves race for an item with a single CAS on top,
+ *               and the owner only joins that race when it pops the very last
+ *               item. stealHalf lets an idle worker take half of a victim's
+ *               work in one call.
+ *
+ *               top and bottom only ever grow and index a circular array
+ *               modulo its power-of-two length. The owner doubles the array
+ *               when it is full; thieves read bottom before the array, so they
+ *               always see an array that holds every item below bottom.
+ *               Stolen items stay in their slot until the owner reuses it.
+ **************************************************************************** */
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class WorkStealingDeque<Item> {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    // Index of the next item to steal; only ever advanced by CAS
+    private final AtomicLong top = new AtomicLong();
+
+    // Index one past the last item; only written by the owner
+    private volatile long bottom;
+
+    private volatile Item[] items;
+
+    // Initializes an empty deque
+    public WorkStealingDeque() {
+        items = (Item[]) new Object[INITIAL_CAPACITY];
+    }
+
+    // Returns the number of items, which may already be stale when other
+    // threads are stealing
+    public int size() {
+        long size = bottom - top.get();
+        return size <= 0 ? 0 : (int) size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Adds item at the bottom. Only the owner thread may call this.
+    public void push(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException();
+
+        long b = bottom;
+        long t = top.get();
+        Item[] a = items;
+        if (b - t >= a.length - 1) {
+            a = grow(a, t, b);
+        }
+        a[(int) b & (a.length - 1)] = item;
+        bottom = b + 1;
+    }
+
+    // Copies the items [t, b) into an array twice as long
+    private Item[] grow(Item[] a, long t, long b) {
+        Item[] bigger = (Item[]) new Object[2 * a.length];
+        for (long i = t; i < b; i++) {
+            bigger[(int) i & (bigger.length - 1)] = a[(int) i & (a.length - 1)];
+        }
+        items = bigger;
+        return bigger;
+    }
+
+    // Removes and returns the bottom item, or null if the deque is empty or a
+    // thief took the last item first. Only the owner thread may call this.
+    public Item pop() {
+        long b = bottom - 1;
+        Item[] a = items;
+
+        // Claim slot b before looking at top, so a thief that reads top after
+        // this sees the smaller bottom
+        bottom = b;
+        long t = top.get();
+        if (b < t) {
+            bottom = t;
+            return null;
+        }
+
+        int index = (int) b & (a.length - 1);
+        Item item = a[index];
+        if (b > t) {
+            a[index] = null;
+            return item;
+        }
+
+        // The last item: race the thieves for it
+        boolean won = top.compareAndSet(t, t + 1);
+        if (won) {
+            a[index] = null;
+        }
+        bottom = t + 1;
+        return won ? item : null;
+    }
+
+    // Removes and returns the top item, or null if the deque is empty. Any
+    // thread may call this.
+    public Item steal() {
+        while (true) {
+            long t = top.get();
+            long b = bottom;
+            if (t >= b) {
+                return null;
+            }
+            Item[] a = items;
+            Item item = a[(int) t & (a.length - 1)];
+            if (top.compareAndSet(t, t + 1)) {
+                return item;
+            }
+        }
+    }
+
+    // Steals up to half of the items, rounded up, but no more than fit in
+    // dst, into dst starting at index 0, and returns how many were stolen.
+    // Every item is claimed with its own CAS on top, so the owner can keep
+    // popping while this runs. Any thread may call this.
+    public int stealHalf(Item[] dst) {
+        if (dst == null)
+            throw new IllegalArgumentException();
+
+        int wanted = Math.min(dst.length, (size() + 1) / 2);
+        int stolen = 0;
+        while (stolen < wanted) {
+            Item item = steal();
+            if (item == null) {
+                break;
+            }
+            dst[stolen++] = item;
+        }
+        return stolen;
+    }
+
+    // Driver code
+    public static void main(String[] args) throws InterruptedException {
+        int n = 1_000_000;
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<Integer>();
+        AtomicLong sum = new AtomicLong();
+
+        Thread thief = new Thread(() -> {
+            Integer[] batch = new Integer[64];
+            long local = 0;
+            int idle = 0;
+            while (idle < 1000) {
+                int stolen = deque.stealHalf(batch);
+                idle = stolen == 0 ? idle + 1 : 0;
+                for (int i = 0; i < stolen; i++) {
+                    local += batch[i];
+                }
+            }
+            sum.addAndGet(local);
+        });
+        thief.start();
+
+        long local = 0;
+        for (int i = 1; i <= n; i++) {
+            deque.push(i);
+            if (i % 3 == 0) {
+                Integer item = deque.pop();
+                if (item != null) local += item;
+            }
+        }
+        Integer item;
+        while ((item = deque.pop()) != null) {
+            local += item;
+        }
+        thief.join();
+        sum.addAndGet(local);
+
+        System.out.println(sum.get() == (long) n * (n + 1) / 2);
+    }
+}